@@ -20,6 +20,8 @@ dependencies {
 
     // Paper API for Minecraft plugin development
     compileOnly("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
+    // compileOnly is not on the test classpath, the unit tests use Material and the other API types directly
+    testImplementation("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
 }
 
 // Apply a specific Java toolchain to ease working on different environments.
@@ -0,0 +1,85 @@
+package foliachallenges;
+
+import java.util.Random;
+
+/**
+ * Vose's alias method: after an O(n) build, every weighted pick costs one random index and one random double.
+ * Column {@code i} is taken with probability {@code prob[i]}, otherwise its alias. Immutable once built.
+ */
+public final class AliasTable {
+
+    private final double[] prob;
+    private final int[] alias;
+
+    private AliasTable(double[] prob, int[] alias) {
+        this.prob = prob;
+        this.alias = alias;
+    }
+
+    /**
+     * @param weights non-negative weights, at least one of them positive
+     * @return the table, or null if no weight is positive
+     */
+    public static AliasTable build(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (weight > 0) total += weight;
+        }
+        if (n == 0 || total <= 0) return null;
+
+        double[] prob = new double[n];
+        int[] alias = new int[n];
+        // Scaled so the average column is exactly 1; columns are split into the ones below and above it
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] > 0 ? weights[i] * n / total : 0;
+            if (scaled[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        // Every small column is topped up from a large one, which then may become small itself
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            prob[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding errors
+        while (largeSize > 0) {
+            int i = large[--largeSize];
+            prob[i] = 1;
+            alias[i] = i;
+        }
+        while (smallSize > 0) {
+            int i = small[--smallSize];
+            prob[i] = 1;
+            alias[i] = i;
+        }
+        return new AliasTable(prob, alias);
+    }
+
+    /**
+     * @return a column index, drawn with probability proportional to its weight
+     */
+    public int sample(Random random) {
+        int column = random.nextInt(prob.length);
+        return random.nextDouble() < prob[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return prob.length;
+    }
+}
@@ -0,0 +1,291 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of challenge events (data.journal).
+ * <p>
+ * Record layout: {@code [int length][byte type][long sequence][payload][int crc32]}, where length and crc
+ * cover type, sequence and payload. Events carry absolute values (new score, remaining jokers, remaining
+ * seconds), so replaying a record that is already contained in the data.yml snapshot is harmless.
+ * <p>
+ * Records are encoded on the calling thread. Appending, compaction and clearing must only happen on the
+ * DataStore writer thread. Appends go to the OS without fsync, which is enough to survive a server crash.
+ */
+public class ChallengeJournal {
+
+    private static final byte ITEM_FOUND = 1;
+    private static final byte ITEM_ASSIGNED = 2;
+    private static final byte JOKER_USED = 3;
+    private static final byte TIMER_REMAINING = 4;
+
+    public interface Visitor {
+        void itemFound(UUID player, Material item, int score);
+        void itemAssigned(UUID player, Material item);
+        void jokerUsed(UUID player, int remainingJokers);
+        void timerRemaining(long remainingMillis);
+    }
+
+    private final Path file;
+    private final Path tempFile;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger records = new AtomicInteger();
+    private FileChannel channel;
+
+    public ChallengeJournal(Path file) {
+        this.file = file;
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    /**
+     * @return the sequence number the next event will get. Everything below is covered by a snapshot taken afterwards.
+     */
+    public long nextSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * @return number of records in the journal file since the last compaction
+     */
+    public int size() {
+        return records.get();
+    }
+
+    // --- Encoding (any thread) ---
+
+    public byte[] itemFound(UUID player, Material item, int score) {
+        return encode(ITEM_FOUND, out -> {
+            writeUuid(out, player);
+            out.writeUTF(item.name());
+            out.writeInt(score);
+        });
+    }
+
+    public byte[] itemAssigned(UUID player, Material item) {
+        return encode(ITEM_ASSIGNED, out -> {
+            writeUuid(out, player);
+            out.writeUTF(item.name());
+        });
+    }
+
+    public byte[] jokerUsed(UUID player, int remainingJokers) {
+        return encode(JOKER_USED, out -> {
+            writeUuid(out, player);
+            out.writeInt(remainingJokers);
+        });
+    }
+
+    public byte[] timerRemaining(long remainingMillis) {
+        return encode(TIMER_REMAINING, out -> out.writeLong(remainingMillis));
+    }
+
+    private interface Payload {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private byte[] encode(byte type, Payload payload) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            out.writeLong(sequence.getAndIncrement());
+            payload.write(out);
+            byte[] body = bytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            return ByteBuffer.allocate(body.length + 8)
+                .putInt(body.length)
+                .put(body)
+                .putInt((int) crc.getValue())
+                .array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    // --- File operations (writer thread) ---
+
+    public void append(byte[] record) throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(record);
+        while (buffer.hasRemaining()) channel.write(buffer);
+        records.incrementAndGet();
+    }
+
+    /**
+     * Folds the journal into the snapshot: drops every record below {@code fromSequence}.
+     */
+    public void compact(long fromSequence) throws IOException {
+        closeChannel();
+        List<Record> kept = read(fromSequence).records;
+        if (kept.isEmpty()) {
+            Files.deleteIfExists(file);
+            records.set(0);
+            return;
+        }
+        try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Record record : kept) {
+                ByteBuffer buffer = ByteBuffer.wrap(record.raw);
+                while (buffer.hasRemaining()) out.write(buffer);
+            }
+            out.force(true);
+        }
+        try {
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        records.set(kept.size());
+    }
+
+    public void clear() throws IOException {
+        closeChannel();
+        Files.deleteIfExists(file);
+        records.set(0);
+    }
+
+    public void close() throws IOException {
+        if (channel != null) channel.force(true);
+        closeChannel();
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // --- Replay (on enable, before the writer thread is used) ---
+
+    /**
+     * Applies all records with a sequence of at least {@code fromSequence} in sequence order.
+     * A torn or corrupt tail (crash mid-append) is cut off.
+     * @return the number of replayed events
+     */
+    public int replay(long fromSequence, Visitor visitor) throws IOException {
+        ReadResult result = read(fromSequence);
+        if (result.validBytes < result.totalBytes) {
+            try (FileChannel truncate = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                truncate.truncate(result.validBytes);
+            }
+        }
+        result.records.sort(Comparator.comparingLong(r -> r.sequence));
+        long next = fromSequence;
+        for (Record record : result.records) {
+            apply(record, visitor);
+            next = Math.max(next, record.sequence + 1);
+        }
+        sequence.set(Math.max(next, result.maxSequence + 1));
+        records.set(result.count);
+        return result.records.size();
+    }
+
+    private void apply(Record record, Visitor visitor) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record.raw, 13, record.raw.length - 17));
+        try {
+            switch (record.type) {
+                case ITEM_FOUND:
+                    visitor.itemFound(readUuid(in), Material.valueOf(in.readUTF()), in.readInt());
+                    break;
+                case ITEM_ASSIGNED:
+                    visitor.itemAssigned(readUuid(in), Material.valueOf(in.readUTF()));
+                    break;
+                case JOKER_USED:
+                    visitor.jokerUsed(readUuid(in), in.readInt());
+                    break;
+                case TIMER_REMAINING:
+                    visitor.timerRemaining(in.readLong());
+                    break;
+                default:
+                    break;
+            }
+        } catch (IllegalArgumentException e) {
+            // Material no longer exists in this version, skip the event
+        }
+    }
+
+    private ReadResult read(long fromSequence) throws IOException {
+        ReadResult result = new ReadResult();
+        if (!Files.exists(file)) return result;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        result.totalBytes = buffer.capacity();
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= 4) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < 9 || buffer.remaining() < length + 4) break;
+
+            crc.reset();
+            crc.update(buffer.array(), start + 4, length);
+            byte type = buffer.get();
+            long seq = buffer.getLong();
+            buffer.position(start + 4 + length);
+            if ((int) crc.getValue() != buffer.getInt()) break;
+
+            result.validBytes = buffer.position();
+            result.count++;
+            result.maxSequence = Math.max(result.maxSequence, seq);
+            if (seq >= fromSequence) {
+                byte[] raw = new byte[length + 8];
+                System.arraycopy(buffer.array(), start, raw, 0, raw.length);
+                result.records.add(new Record(type, seq, raw));
+            }
+        }
+        return result;
+    }
+
+    private static final class Record {
+        final byte type;
+        final long sequence;
+        final byte[] raw;
+
+        Record(byte type, long sequence, byte[] raw) {
+            this.type = type;
+            this.sequence = sequence;
+            this.raw = raw;
+        }
+    }
+
+    private static final class ReadResult {
+        final List<Record> records = new ArrayList<>();
+        long totalBytes;
+        long validBytes;
+        long maxSequence = -1;
+        int count;
+    }
+}
@@ -0,0 +1,390 @@
+package foliachallenges;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One Random Item Battle, bound to a world and its nether and end.
+ * Every session has its own timer, players, item pool, leaderboard, settings and data files,
+ * so several groups can play in parallel on one server without sharing any state.
+ * <p>
+ * The timer ticks on the region scheduler owning the world spawn instead of the global region,
+ * which lets Folia spread the sessions over its tick threads. The remaining time is not counted down
+ * by the tick: a running timer has a {@link System#nanoTime()} deadline and a paused one keeps the
+ * time that was left, so the challenge lasts exactly as long as set, no matter how far the TPS drop.
+ */
+public class ChallengeSession {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long TICK_PERIOD = 5;
+
+    private final String name;
+    private final Set<String> worldNames;
+    private final boolean primary;
+    private final DataStore dataStore;
+
+    // Mutated from many region threads at once, keyed by UUID so no Player objects are kept alive
+    private final Map<UUID, PlayerChallengeState> players = new ConcurrentHashMap<>();
+    private final ItemPool itemPool;
+    private final TargetIndex targetIndex = new TargetIndex();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final LeaderboardFooter leaderboardFooter = new LeaderboardFooter(leaderboard);
+
+    // Pre-resolved config values for the hot paths, replaced as a whole on reload or settings change
+    private volatile ChallengeSettings settings;
+    private volatile int defaultJokers;
+
+    private volatile long timerSeconds;
+    // Time left while paused; while running the deadline counts, both guarded by the timer methods below
+    private volatile long bankedNanos;
+    private volatile long deadlineNanos;
+    private volatile boolean timerRunning;
+    private volatile boolean timerSet;
+    private volatile Component actionBar = Component.empty();
+    private volatile String roundId;
+    // Shared target order in race mode, null = every target is drawn from the pool
+    private volatile TargetSequence raceSequence;
+    private volatile ScheduledTask tickTask;
+
+    /**
+     * @param background runs the rebuilds of the weighted item pool
+     */
+    public ChallengeSession(String name, boolean primary, DataStore dataStore, Executor background) {
+        this.name = name;
+        this.primary = primary;
+        this.dataStore = dataStore;
+        this.itemPool = new ItemPool(background);
+        this.worldNames = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(name, name + "_nether", name + "_the_end")));
+    }
+
+    /**
+     * @return the name of the overworld this session is bound to
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * The primary session covers the main level and every world no other session claims.
+     */
+    public boolean isPrimary() {
+        return primary;
+    }
+
+    public Set<String> getWorldNames() {
+        return worldNames;
+    }
+
+    /**
+     * @return the loaded worlds of this session
+     */
+    public List<World> getWorlds() {
+        List<World> worlds = new ArrayList<>(3);
+        for (String worldName : worldNames) {
+            World world = Bukkit.getWorld(worldName);
+            if (world != null) worlds.add(world);
+        }
+        return worlds;
+    }
+
+    /**
+     * Config path of a setting, sessions other than the primary one override it in their own section.
+     */
+    public String configPath(String key) {
+        return primary ? key : "sessions." + name + "." + key;
+    }
+
+    public DataStore getDataStore() {
+        return dataStore;
+    }
+
+    // --- Players ---
+
+    public Map<UUID, PlayerChallengeState> getPlayers() {
+        return players;
+    }
+
+    public PlayerChallengeState state(UUID uuid) {
+        return players.computeIfAbsent(uuid, PlayerChallengeState::new);
+    }
+
+    public PlayerChallengeState getState(UUID uuid) {
+        return players.get(uuid);
+    }
+
+    public Material getAssignedItem(UUID uuid) {
+        PlayerChallengeState state = players.get(uuid);
+        return state != null ? state.getAssignedItem() : null;
+    }
+
+    // All target changes go through here so the reverse index stays in sync
+    public void setTarget(PlayerChallengeState state, Material item) {
+        Material previous = state.getAssignedItem();
+        state.setAssignedItem(item);
+        state.setAssignedAtMillis(item != null ? getElapsedMillis() : -1);
+        if (item != null) state.getSeenItems().add(item);
+        targetIndex.move(state.getUuid(), previous, item);
+    }
+
+    public ItemPool getItemPool() {
+        return itemPool;
+    }
+
+    /**
+     * @return the next target of the player: the next drawable item of the race sequence, or a draw from the pool.
+     * Without allow-duplicate-targets, items the player already had are skipped until every item was seen once.
+     */
+    public Material nextTarget(PlayerChallengeState state) {
+        SeenItems seen = settings.isAllowDuplicateTargets() ? null : state.getSeenItems();
+        Material item = draw(state, seen);
+        if (item == null && seen != null && !seen.isEmpty()) {
+            // The player had every item, the next round through the pool starts
+            seen.clear();
+            item = draw(state, seen);
+        }
+        return item;
+    }
+
+    private Material draw(PlayerChallengeState state, SeenItems seen) {
+        TargetSequence sequence = raceSequence;
+        if (sequence == null || sequence.length() == 0) return seen != null ? itemPool.sample(seen) : itemPool.sample();
+        // Unobtainable and blacklisted items and items outside the session's tiers are skipped, usually the first read hits
+        for (int i = 0; i < sequence.length(); i++) {
+            Material item = sequence.get(state.nextRaceCursor());
+            if (itemPool.isDrawable(item) && (seen == null || !seen.contains(item))) return item;
+        }
+        return seen != null ? null : itemPool.sample();
+    }
+
+    public TargetSequence getRaceSequence() {
+        return raceSequence;
+    }
+
+    /**
+     * Starts race mode for a new round, every player starts at the beginning of the sequence.
+     */
+    public void startRace(long seed) {
+        raceSequence = TargetSequence.of(seed);
+        players.values().forEach(state -> state.setRaceCursor(0));
+    }
+
+    /**
+     * Recreates the sequence of a round loaded from data.yml. Each cursor continues after the player's current target.
+     */
+    public void restoreRace(long seed) {
+        TargetSequence sequence = TargetSequence.of(seed);
+        players.values().forEach(state -> state.setRaceCursor(sequence.cursorAfter(state.getAssignedItem())));
+        raceSequence = sequence;
+    }
+
+    public TargetIndex getTargetIndex() {
+        return targetIndex;
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    public LeaderboardFooter getLeaderboardFooter() {
+        return leaderboardFooter;
+    }
+
+    // --- Settings ---
+
+    public ChallengeSettings getSettings() {
+        return settings;
+    }
+
+    public void setSettings(ChallengeSettings settings) {
+        this.settings = settings;
+    }
+
+    public int getDefaultJokers() {
+        return defaultJokers;
+    }
+
+    public void setDefaultJokers(int defaultJokers) {
+        this.defaultJokers = defaultJokers;
+    }
+
+    // --- Timer ---
+
+    public long getRemainingNanos() {
+        if (!timerRunning) return bankedNanos;
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+
+    /**
+     * @return whole seconds left, rounded up so the display only shows 00:00 once the time is really over
+     */
+    public long getRemainingSeconds() {
+        return (getRemainingNanos() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+    }
+
+    public long getRemainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getRemainingNanos());
+    }
+
+    /**
+     * @return challenge time that has passed, pauses not included
+     */
+    public long getElapsedMillis() {
+        return Math.max(0, TimeUnit.SECONDS.toMillis(timerSeconds) - getRemainingMillis());
+    }
+
+    /**
+     * Restores the time left, e.g. from data.yml. The timer stays paused.
+     */
+    public synchronized void setRemainingMillis(long millis) {
+        bankedNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+        timerRunning = false;
+    }
+
+    public long getTimerSeconds() {
+        return timerSeconds;
+    }
+
+    public void setTimerSeconds(long timerSeconds) {
+        this.timerSeconds = timerSeconds;
+    }
+
+    public boolean isTimerRunning() {
+        return timerRunning;
+    }
+
+    /**
+     * Lets the banked time run down against a deadline.
+     * @return false if the timer was already running
+     */
+    public synchronized boolean resumeTimer() {
+        if (timerRunning) return false;
+        deadlineNanos = System.nanoTime() + bankedNanos;
+        timerRunning = true;
+        return true;
+    }
+
+    /**
+     * Stops the clock and banks the time that is left.
+     * @return false if the timer was not running
+     */
+    public synchronized boolean pauseTimer() {
+        if (!timerRunning) return false;
+        bankedNanos = Math.max(0, deadlineNanos - System.nanoTime());
+        timerRunning = false;
+        return true;
+    }
+
+    public boolean isTimerExpired() {
+        return timerRunning && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public boolean isTimerSet() {
+        return timerSet;
+    }
+
+    public void setTimerSet(boolean timerSet) {
+        this.timerSet = timerSet;
+    }
+
+    /**
+     * @return share of the timer that is left, from 1 down to 0; 1 if the full duration is unknown
+     */
+    public float getTimerProgress() {
+        long total = timerSeconds;
+        if (total <= 0) return 1f;
+        return Math.max(0f, Math.min(1f, (float) getRemainingNanos() / TimeUnit.SECONDS.toNanos(total)));
+    }
+
+    public synchronized void setTimer(long seconds) {
+        timerSeconds = seconds;
+        bankedNanos = TimeUnit.SECONDS.toNanos(seconds);
+        deadlineNanos = System.nanoTime() + bankedNanos;
+        timerSet = true;
+    }
+
+    /**
+     * Clears scores, targets and the timer. Joker counts and cached names are kept.
+     */
+    public void reset() {
+        raceSequence = null;
+        for (PlayerChallengeState state : players.values()) {
+            state.setScore(0);
+            state.setAssignedItem(null);
+            state.setRaceCursor(0);
+            state.getSeenItems().clear();
+        }
+        targetIndex.clear();
+        leaderboard.clear();
+        synchronized (this) {
+            bankedNanos = 0;
+            timerSeconds = 0;
+            timerSet = false;
+            timerRunning = false;
+        }
+    }
+
+    /**
+     * Starts the timer tick on the region owning the world spawn. It runs a few times per second,
+     * so the end is noticed on time even if single ticks are late.
+     * Falls back to the global region if the world is not loaded.
+     */
+    public void startTicking(Plugin plugin, Consumer<ScheduledTask> tick) {
+        stopTicking();
+        World world = Bukkit.getWorld(name);
+        if (world != null) {
+            tickTask = Bukkit.getServer().getRegionScheduler().runAtFixedRate(plugin, world.getSpawnLocation(), tick, 1, TICK_PERIOD);
+        } else {
+            tickTask = Bukkit.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, tick, 1, TICK_PERIOD);
+        }
+    }
+
+    public void stopTicking() {
+        ScheduledTask task = tickTask;
+        tickTask = null;
+        if (task != null) task.cancel();
+    }
+
+    // --- History ---
+
+    /**
+     * @return id of the round in the {@link ChallengeStorage}, null until the timer is started for the first time
+     */
+    public String getRoundId() {
+        return roundId;
+    }
+
+    public void setRoundId(String roundId) {
+        this.roundId = roundId;
+    }
+
+    // --- HUD ---
+
+    public Component getActionBar() {
+        return actionBar;
+    }
+
+    public void setActionBar(Component actionBar) {
+        this.actionBar = actionBar;
+    }
+
+    public ChallengeSnapshot snapshot() {
+        return new ChallengeSnapshot(getRemainingMillis(), timerSeconds, roundId, raceSequence != null ? raceSequence.getSeed() : null, players.values(), leaderboard.getNames(), defaultJokers);
+    }
+}
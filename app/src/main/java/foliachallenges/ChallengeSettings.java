@@ -0,0 +1,121 @@
+package foliachallenges;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.title.Title;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of config.yml values and messages used on hot paths.
+ * Resolved once on enable/reload and swapped as a whole, so event handlers never touch the YAML maps.
+ */
+public final class ChallengeSettings {
+
+    private final boolean allowMovementWithoutTimer;
+    private final boolean allowDuplicateTargets;
+    private final boolean giveItemOnJoker;
+    private final boolean shareBlacklistedItems;
+    private final Set<ItemDifficulty.Tier> difficultyTiers;
+    private final boolean raceMode;
+    private final long raceSeed;
+    private final Title freezeTitle;
+    private final int tabListTopPlayers;
+    private final Component tabListTitle;
+
+    private ChallengeSettings(FileConfiguration config, ConfigurationSection overrides, Messages messages) {
+        this.allowMovementWithoutTimer = getBoolean(config, overrides, "allow-movement-without-timer", false);
+        this.allowDuplicateTargets = getBoolean(config, overrides, "allow-duplicate-targets", false);
+        this.giveItemOnJoker = getBoolean(config, overrides, "give-item-on-joker", false);
+        this.shareBlacklistedItems = config.getBoolean("share-blacklisted-items-to-developer", true);
+        this.difficultyTiers = ItemDifficulty.parseTiers(getStringList(config, overrides, "difficulty-tiers"));
+        this.raceMode = getBoolean(config, overrides, "race-mode", false);
+        this.raceSeed = getLong(config, overrides, "race-seed", 0);
+        // 10/70/20 ticks fade in, stay and fade out
+        this.freezeTitle = Title.title(Messages.legacy("§c§l" + messages.text("timer-paused-title", "STOP!")),
+            messages.component("timer-paused-subtitle", "Der Timer ist pausiert!"),
+            Title.Times.times(Duration.ofMillis(500), Duration.ofMillis(3500), Duration.ofMillis(1000)));
+        this.tabListTopPlayers = Math.max(0, config.getInt("tab-list-top-players", 10));
+        this.tabListTitle = messages.component("tab-list-title", "§6§lTop Players");
+    }
+
+    public static ChallengeSettings load(FileConfiguration config, Messages messages) {
+        return new ChallengeSettings(config, null, messages);
+    }
+
+    /**
+     * Settings of a session, values in its {@code sessions.<world>} section override the global ones.
+     */
+    public static ChallengeSettings load(FileConfiguration config, ConfigurationSection overrides, Messages messages) {
+        return new ChallengeSettings(config, overrides, messages);
+    }
+
+    private static boolean getBoolean(FileConfiguration config, ConfigurationSection overrides, String key, boolean def) {
+        boolean global = config.getBoolean(key, def);
+        return overrides != null ? overrides.getBoolean(key, global) : global;
+    }
+
+    private static long getLong(FileConfiguration config, ConfigurationSection overrides, String key, long def) {
+        long global = config.getLong(key, def);
+        return overrides != null ? overrides.getLong(key, global) : global;
+    }
+
+    private static List<String> getStringList(FileConfiguration config, ConfigurationSection overrides, String key) {
+        return overrides != null && overrides.contains(key) ? overrides.getStringList(key) : config.getStringList(key);
+    }
+
+    public boolean isAllowMovementWithoutTimer() {
+        return allowMovementWithoutTimer;
+    }
+
+    public boolean isAllowDuplicateTargets() {
+        return allowDuplicateTargets;
+    }
+
+    public boolean isGiveItemOnJoker() {
+        return giveItemOnJoker;
+    }
+
+    public boolean isShareBlacklistedItems() {
+        return shareBlacklistedItems;
+    }
+
+    /**
+     * @return the difficulty tiers targets are drawn from
+     */
+    public Set<ItemDifficulty.Tier> getDifficultyTiers() {
+        return difficultyTiers;
+    }
+
+    /**
+     * @return true if all players get the same targets in the same order (see {@link TargetSequence})
+     */
+    public boolean isRaceMode() {
+        return raceMode;
+    }
+
+    /**
+     * @return fixed seed of the race sequence, 0 for a new random seed every round
+     */
+    public long getRaceSeed() {
+        return raceSeed;
+    }
+
+    public Title getFreezeTitle() {
+        return freezeTitle;
+    }
+
+    /**
+     * @return number of players in the leaderboard of the player list footer, 0 = not shown
+     */
+    public int getTabListTopPlayers() {
+        return tabListTopPlayers;
+    }
+
+    public Component getTabListTitle() {
+        return tabListTitle;
+    }
+}
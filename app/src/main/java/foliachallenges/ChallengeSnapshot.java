@@ -0,0 +1,96 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the challenge state that gets written to data.yml.
+ * Taking the snapshot only copies the maps, the YAML encoding happens later on the writer thread.
+ */
+public class ChallengeSnapshot {
+
+    private final long remainingMillis;
+    private final long timerSeconds;
+    private final String roundId;
+    private final Long raceSeed;
+    private final Map<UUID, Integer> scores;
+    private final Map<UUID, Material> assignedItems;
+    private final Map<UUID, Integer> jokerCounts;
+    private final Map<UUID, String> seenItems;
+    private final Map<UUID, String> names;
+    private final int defaultJokers;
+
+    public ChallengeSnapshot(long remainingMillis, long timerSeconds, String roundId, Long raceSeed, Collection<PlayerChallengeState> players, Map<UUID, String> names, int defaultJokers) {
+        this.remainingMillis = remainingMillis;
+        this.timerSeconds = timerSeconds;
+        this.roundId = roundId;
+        this.raceSeed = raceSeed;
+        this.scores = new HashMap<>();
+        this.assignedItems = new HashMap<>();
+        this.jokerCounts = new HashMap<>();
+        this.seenItems = new HashMap<>();
+        // Iterating the ConcurrentHashMap values never throws, each player is read from its own atomics
+        for (PlayerChallengeState state : players) {
+            UUID uuid = state.getUuid();
+            int score = state.getScore();
+            if (score > 0) scores.put(uuid, score);
+            Material item = state.getAssignedItem();
+            if (item != null) assignedItems.put(uuid, item);
+            if (state.hasJokerCount()) jokerCounts.put(uuid, state.getJokers());
+            // Base64 of the bitset, a few hundred bytes per player
+            SeenItems seen = state.getSeenItems();
+            if (!seen.isEmpty()) seenItems.put(uuid, seen.toBase64());
+        }
+        this.names = new HashMap<>();
+        // Only names of players that took part, so results can be shown without offline player lookups
+        names.forEach((uuid, name) -> {
+            if (scores.containsKey(uuid) || assignedItems.containsKey(uuid)) this.names.put(uuid, name);
+        });
+        this.defaultJokers = defaultJokers;
+    }
+
+    /**
+     * @param journalSequence first journal sequence that is not contained in this snapshot
+     */
+    public String toYaml(long journalSequence) {
+        YamlConfiguration data = new YamlConfiguration();
+        // remainingSeconds is kept for older versions and readability, remainingMillis is what gets loaded
+        data.set("remainingSeconds", (remainingMillis + 999) / 1000);
+        data.set("remainingMillis", remainingMillis);
+        data.set("timerSeconds", timerSeconds);
+        data.set("roundId", roundId);
+        // The race sequence is recreated from the seed on load, the cursors from the current targets
+        data.set("raceSeed", raceSeed);
+        data.set("journalSequence", journalSequence);
+
+        Map<String, Integer> scoreMap = new HashMap<>();
+        scores.forEach((uuid, pts) -> scoreMap.put(uuid.toString(), pts));
+        data.set("scores", scoreMap);
+
+        Map<String, String> assignMap = new HashMap<>();
+        assignedItems.forEach((uuid, mat) -> assignMap.put(uuid.toString(), mat.name()));
+        data.set("assignedItems", assignMap);
+
+        Map<String, Integer> jokerMap = new HashMap<>();
+        jokerCounts.forEach((uuid, count) -> jokerMap.put(uuid.toString(), count));
+        data.set("jokerCounts", jokerMap);
+
+        Map<String, String> seenMap = new HashMap<>();
+        seenItems.forEach((uuid, bits) -> seenMap.put(uuid.toString(), bits));
+        data.set("seenItems", seenMap);
+        // Bits are material ordinals, which change between Minecraft versions
+        data.set("seenItemsMaterials", SeenItems.materialCount());
+
+        Map<String, String> nameMap = new HashMap<>();
+        names.forEach((uuid, name) -> nameMap.put(uuid.toString(), name));
+        data.set("names", nameMap);
+
+        data.set("defaultJokers", defaultJokers);
+        return data.saveToString();
+    }
+}
@@ -0,0 +1,188 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Long-term history of finished challenges: rounds, final results per player and every found item.
+ * Unlike data.yml, which only holds the running challenge and is deleted after it, the history survives
+ * resets and is used for {@code /challenges history} and lifetime player stats.
+ * <p>
+ * Writes are fire-and-forget and must never block the calling tick thread; queries complete on the storage thread.
+ */
+public interface ChallengeStorage {
+
+    /**
+     * @param raceSeed seed of the race mode sequence, null if the round is not a race
+     */
+    void roundStarted(String roundId, String session, long startedAt, long durationSeconds, Long raceSeed);
+
+    /**
+     * @param searchMillis challenge time since the item was assigned, -1 if unknown (e.g. assigned before a restart)
+     */
+    void itemFound(String roundId, UUID player, Material item, long foundAt, long searchMillis);
+
+    /**
+     * @param completed false if the round was cut short by a reset
+     */
+    void roundFinished(String roundId, long endedAt, boolean completed, List<PlayerResult> results);
+
+    /**
+     * @return the latest rounds of a session, newest first
+     */
+    CompletableFuture<List<RoundSummary>> recentRounds(String session, int limit);
+
+    /**
+     * @return lifetime stats of the player with this name (case-insensitive), or null if the player never finished a round
+     */
+    CompletableFuture<PlayerStats> playerStats(String playerName);
+
+    /**
+     * @return number of finds with a known search time and their average, by item
+     */
+    CompletableFuture<Map<Material, SearchTime>> searchTimes();
+
+    /**
+     * Writes everything still queued and releases the storage. Only called on disable.
+     */
+    void close();
+
+    final class PlayerResult {
+        private final UUID uuid;
+        private final String name;
+        private final int score;
+        private final int rank;
+
+        public PlayerResult(UUID uuid, String name, int score, int rank) {
+            this.uuid = uuid;
+            this.name = name;
+            this.score = score;
+            this.rank = rank;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getRank() {
+            return rank;
+        }
+    }
+
+    final class RoundSummary {
+        private final String roundId;
+        private final long startedAt;
+        private final long endedAt;
+        private final boolean completed;
+        private final int players;
+        private final String winner;
+        private final int winnerScore;
+
+        public RoundSummary(String roundId, long startedAt, long endedAt, boolean completed, int players, String winner, int winnerScore) {
+            this.roundId = roundId;
+            this.startedAt = startedAt;
+            this.endedAt = endedAt;
+            this.completed = completed;
+            this.players = players;
+            this.winner = winner;
+            this.winnerScore = winnerScore;
+        }
+
+        public String getRoundId() {
+            return roundId;
+        }
+
+        public long getStartedAt() {
+            return startedAt;
+        }
+
+        public long getEndedAt() {
+            return endedAt;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public int getPlayers() {
+            return players;
+        }
+
+        /**
+         * @return name of the first place, null if nobody scored
+         */
+        public String getWinner() {
+            return winner;
+        }
+
+        public int getWinnerScore() {
+            return winnerScore;
+        }
+    }
+
+    final class SearchTime {
+        private final long finds;
+        private final long averageMillis;
+
+        public SearchTime(long finds, long averageMillis) {
+            this.finds = finds;
+            this.averageMillis = averageMillis;
+        }
+
+        public long getFinds() {
+            return finds;
+        }
+
+        public long getAverageMillis() {
+            return averageMillis;
+        }
+    }
+
+    final class PlayerStats {
+        private final String name;
+        private final int rounds;
+        private final int wins;
+        private final long itemsFound;
+        private final int bestScore;
+
+        public PlayerStats(String name, int rounds, int wins, long itemsFound, int bestScore) {
+            this.name = name;
+            this.rounds = rounds;
+            this.wins = wins;
+            this.itemsFound = itemsFound;
+            this.bestScore = bestScore;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public long getItemsFound() {
+            return itemsFound;
+        }
+
+        public int getBestScore() {
+            return bestScore;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind persistence for data.yml.
+ * Tick threads only mark the state dirty or append small events to the {@link ChallengeJournal}.
+ * A periodic flush takes a snapshot and hands it to a single background thread which encodes it,
+ * writes a temp file, fsyncs and atomically replaces data.yml. Afterwards the journal is compacted.
+ * If several snapshots queue up while a write is running, only the newest one is written.
+ */
+public class DataStore {
+
+    // Fold the journal into data.yml after this many events or this much time
+    private static final int COMPACT_RECORDS = 4096;
+    private static final long COMPACT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Path dataFile;
+    private final Path tempFile;
+    private final ChallengeJournal journal;
+    private final Logger logger;
+    private final Supplier<String> errorMessage;
+    private final LatencyHistogram flushTimer;
+    private final LatencyHistogram writeTimer;
+    private volatile long lastCompaction = System.nanoTime();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "FoliaChallenges-DataStore");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final AtomicReference<PendingWrite> pending = new AtomicReference<>();
+
+    public DataStore(File dataFolder, Logger logger, Supplier<String> errorMessage, Metrics metrics) {
+        this.dataFile = new File(dataFolder, "data.yml").toPath();
+        this.tempFile = new File(dataFolder, "data.yml.tmp").toPath();
+        this.journal = new ChallengeJournal(new File(dataFolder, "data.journal").toPath());
+        this.logger = logger;
+        this.errorMessage = errorMessage;
+        this.flushTimer = metrics.timer("persistence_snapshot");
+        this.writeTimer = metrics.timer("persistence_write");
+    }
+
+    public File getFile() {
+        return dataFile.toFile();
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    // --- Journal events (the state must already be updated when these are called) ---
+
+    public void itemFound(UUID player, Material item, int score) {
+        append(journal.itemFound(player, item, score));
+    }
+
+    public void itemAssigned(UUID player, Material item) {
+        append(journal.itemAssigned(player, item));
+    }
+
+    public void jokerUsed(UUID player, int remainingJokers) {
+        append(journal.jokerUsed(player, remainingJokers));
+    }
+
+    public void timerRemaining(long remainingMillis) {
+        append(journal.timerRemaining(remainingMillis));
+    }
+
+    private void append(byte[] record) {
+        writer.execute(() -> {
+            try {
+                journal.append(record);
+            } catch (IOException ex) {
+                logger.log(Level.SEVERE, errorMessage.get(), ex);
+            }
+        });
+    }
+
+    /**
+     * Replays journal events written after the data.yml snapshot. Only called on enable.
+     */
+    public int replayJournal(long fromSequence, ChallengeJournal.Visitor visitor) {
+        try {
+            return journal.replay(fromSequence, visitor);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Could not replay data.journal", ex);
+            return 0;
+        }
+    }
+
+    /**
+     * Takes a snapshot and queues it for writing if something changed since the last flush,
+     * or if the journal is due for compaction.
+     */
+    public void flush(Supplier<ChallengeSnapshot> snapshot) {
+        int journalSize = journal.size();
+        boolean compact = journalSize >= COMPACT_RECORDS
+            || (journalSize > 0 && System.nanoTime() - lastCompaction >= COMPACT_INTERVAL_NANOS);
+        if (dirty.getAndSet(false) || compact) {
+            long start = System.nanoTime();
+            // Read the sequence before copying the state: every event below it is part of the snapshot
+            long journalSequence = journal.nextSequence();
+            submit(new PendingWrite(snapshot.get(), journalSequence));
+            lastCompaction = System.nanoTime();
+            flushTimer.recordSince(start);
+        }
+    }
+
+    private void submit(PendingWrite write) {
+        pending.set(write);
+        if (writeScheduled.compareAndSet(false, true)) {
+            writer.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        writeScheduled.set(false);
+        PendingWrite write = pending.getAndSet(null);
+        if (write != null) {
+            write(write);
+        }
+    }
+
+    private void write(PendingWrite write) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = write.snapshot.toYaml(write.journalSequence).getBytes(StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile, dataFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, dataFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            journal.compact(write.journalSequence);
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, errorMessage.get(), ex);
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+
+    /**
+     * Drops pending writes and deletes data.yml and the journal once all earlier writes are done.
+     */
+    public void delete() {
+        dirty.set(false);
+        pending.set(null);
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(dataFile);
+                Files.deleteIfExists(tempFile);
+                journal.clear();
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Could not delete " + dataFile, ex);
+            }
+        });
+    }
+
+    /**
+     * Writes the final snapshot and waits for the writer thread to finish. Only called on disable.
+     */
+    public void close(ChallengeSnapshot snapshot) {
+        dirty.set(false);
+        submit(new PendingWrite(snapshot, journal.nextSequence()));
+        writer.execute(() -> {
+            try {
+                journal.close();
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Could not close data.journal", ex);
+            }
+        });
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.severe(errorMessage.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PendingWrite {
+        final ChallengeSnapshot snapshot;
+        final long journalSequence;
+
+        PendingWrite(ChallengeSnapshot snapshot, long journalSequence) {
+            this.snapshot = snapshot;
+            this.journalSequence = journalSequence;
+        }
+    }
+}
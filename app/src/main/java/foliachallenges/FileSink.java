@@ -0,0 +1,30 @@
+package foliachallenges;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends notifications to a local file, one timestamped line each.
+ */
+public class FileSink implements NotificationSink {
+
+    private final Path file;
+
+    public FileSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void send(List<String> messages) throws IOException {
+        String timestamp = Instant.now().toString();
+        List<String> lines = new ArrayList<>(messages.size());
+        for (String message : messages) lines.add(timestamp + " " + message);
+        Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -1,41 +1,63 @@
 package foliachallenges;
 
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.GameMode;
 import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
 import org.bukkit.Sound;
-import org.bukkit.boss.BarColor;
-import org.bukkit.boss.BarStyle;
-import org.bukkit.boss.BossBar;
-import org.bukkit.command.Command;
+import org.bukkit.World;
 import org.bukkit.command.CommandSender;
-import org.bukkit.command.TabCompleter;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.ItemDisplay;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityPickupItemEvent;
 import org.bukkit.event.entity.EntityTargetLivingEntityEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerGameModeChangeEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerDropItemEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
-import org.bukkit.event.player.PlayerPickupItemEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.inventory.FurnaceExtractEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.util.Transformation;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
 
 import org.bukkit.plugin.java.JavaPlugin;
 
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+import com.mojang.brigadier.tree.LiteralCommandNode;
+import io.papermc.paper.command.brigadier.CommandSourceStack;
+import io.papermc.paper.command.brigadier.Commands;
+import io.papermc.paper.command.brigadier.argument.ArgumentTypes;
+import io.papermc.paper.plugin.lifecycle.event.types.LifecycleEvents;
 import io.papermc.paper.threadedregions.scheduler.GlobalRegionScheduler;
-import io.papermc.paper.threadedregions.scheduler.RegionScheduler;
 import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
 
 import java.io.File;
@@ -43,145 +65,293 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 import java.util.logging.Level;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCompleter {
+public class FoliaChallengePlugin extends JavaPlugin implements Listener {
 
-    private static final String PREFIX = "§8§l┃ §bFoliaChallenges §8┃§7 ";
+    // Receives shared blacklist entries unless notifications.url points somewhere else
+    private static final String DEVELOPER_WEBHOOK = "https://discord.com/api/webhooks/1456737969581850684/YXYsctMK0K5a3m6eM65rp9WnFcddCTLmSIL9jjfQ2V1k8HOYBFuAxCKZTQs-xYjWGUMW";
 
     private String settingsGUITitle;
 
     private FileConfiguration config;
-    private FileConfiguration messages;
-    private long timerSeconds = 0;
-    private long remainingSeconds = 0;
-    private boolean timerRunning = false;
-    private boolean timerSet = false;
-    private ScheduledTask actionBarTask;
-    private ScheduledTask timerTask;
+    // Compiled once per load, replaced as a whole on reload
+    private volatile Messages messages;
+    private volatile ItemNames itemNames;
     private ScheduledTask saveTask;
     private GlobalRegionScheduler scheduler;
-    private RegionScheduler regionScheduler;
+    private HudDispatcher hud;
     
-    private List<Material> configurableBlacklist = new ArrayList<>();
-    private List<Material> hardcodedBlacklist = ItemBlacklist.HARDCODED_BLACKLIST;
+    // Never modified after it is published, blockitem and reload swap in a new set
+    private volatile Set<Material> configurableBlacklist = EnumSet.noneOf(Material.class);
     
-    private Map<UUID, Material> assignedItems = new HashMap<>();
-    private Map<UUID, Integer> scores = new HashMap<>();
-    private Map<UUID, Integer> jokerCounts = new HashMap<>();
-    private Map<UUID, Integer> storedJokers = new HashMap<>();
-    private int defaultJokers = 0;
-    private boolean allowDuplicateTargets = false;
-    private boolean giveItemOnJoker = false;
+    // Histograms and counters are looked up once, recording on the hot paths is lock-free
+    private final Metrics metrics = new Metrics();
+    private final LatencyHistogram moveTimer = metrics.timer("event_move");
+    private final LatencyHistogram pickupTimer = metrics.timer("event_pickup_item");
+    private final LatencyHistogram inventoryClickTimer = metrics.timer("event_inventory_click_settings");
+    private final LatencyHistogram inventoryClickTargetTimer = metrics.timer("event_inventory_click_target");
+    private final LatencyHistogram interactTimer = metrics.timer("event_interact");
+    private final LatencyHistogram timerTaskTimer = metrics.timer("task_timer");
+    private final LatencyHistogram saveTaskTimer = metrics.timer("task_save");
+    private final LatencyHistogram loadTimer = metrics.timer("persistence_load");
+    private final LongAdder itemsAssigned = metrics.counter("items_assigned");
+    private final LongAdder itemsFound = metrics.counter("items_found");
+    private final LongAdder jokersUsed = metrics.counter("jokers_used");
+    private ScheduledTask metricsExportTask;
+    private WorldCleaner worldCleaner;
+    private JokerItems jokerItems;
+    private NamespacedKey targetDisplayKey;
+    private volatile NotificationQueue notifications;
+    private ChallengeStorage storage;
+    private volatile ItemDifficulty difficulty;
+    // Obtainable item keys for the blockitem suggestions, rebuilt when the obtainability rules change
+    private volatile ItemKeyIndex itemKeys;
+    private String mainLevelName;
     
-    private Map<Player, BossBar> bossBars = new HashMap<>();
-    private Map<Player, org.bukkit.entity.ArmorStand> itemDisplays = new HashMap<>();
+    // Sessions by name and by every world they cover; worlds without a session belong to the primary one
+    private final Map<String, ChallengeSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, ChallengeSession> sessionsByWorld = new ConcurrentHashMap<>();
+    private ChallengeSession primarySession;
+    private final LeaderboardFooter.LineFormat tabListLine = this::tabListLine;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
         saveDefaultMessages();
         saveDefaultItemBlacklist();
+        copyResource(ItemBlacklist.RULES_FILE);
+        copyResource(ItemDifficulty.FILE);
         config = getConfig();
-        defaultJokers = config.getInt("default-jokers", 0);
-        allowDuplicateTargets = config.getBoolean("allow-duplicate-targets", false);
-        giveItemOnJoker = config.getBoolean("give-item-on-joker", false);
-        messages = YamlConfiguration.loadConfiguration(new File(getDataFolder(), "messages.yml"));
-        settingsGUITitle = messages.getString("settings-gui-color", "§b§l") + messages.getString("settings-gui-title", "Random Item Battle Settings");
-        loadConfigurableBlacklist();
+        messages = Messages.load(new File(getDataFolder(), "messages.yml"));
+        settingsGUITitle = messages.text("settings-gui-color", "§b§l") + messages.text("settings-gui-title", "Random Item Battle Settings");
+        itemNames = loadItemNames();
+        ItemBlacklist.load(new File(getDataFolder(), ItemBlacklist.RULES_FILE), getLogger());
+        configurableBlacklist = loadConfigurableBlacklist();
+        itemKeys = new ItemKeyIndex(ItemPool.candidates());
+        difficulty = ItemDifficulty.load(new File(getDataFolder(), ItemDifficulty.FILE), getLogger());
+        mainLevelName = readMainLevelName();
+        jokerItems = new JokerItems(this);
+        targetDisplayKey = new NamespacedKey(this, "target_display");
+        notifications = createNotificationQueue();
+        storage = createStorage();
         getServer().getPluginManager().registerEvents(this, this);
         
         // --- CLEANUP LOGIC START ---
         // Delete old worlds that were marked for deletion during the last reset
-        // Since we are now in a new world, the old folders are inactive and can be deleted.
+        // Since we are now in a new world, the old folders are inactive and can be moved away and deleted.
         cleanupOldWorlds();
         // --- CLEANUP LOGIC END ---
 
-        registerCommand("challenges");
-        registerCommand("timer");
-        registerCommand("reset");
-        registerCommand("start");
-        registerCommand("settings");
+        registerCommands();
         
-        getLogger().info(messages.getString("plugin-enabled", "FoliaChallenge enabled!"));
+        getLogger().info(messages.text("plugin-enabled", "FoliaChallenge enabled!"));
         
         this.scheduler = getServer().getGlobalRegionScheduler();
-        this.regionScheduler = getServer().getRegionScheduler();
         scheduler.run(this, task -> pauseWorlds());
         
-        actionBarTask = scheduler.runAtFixedRate(this, task -> updateActionBar(), 1, 10);
+        // Each player's own scheduler renders the HUD of the session the player is in, unchanged elements are not resent
+        hud = new HudDispatcher(this, this::renderHud, metrics);
+        for (Player p : getServer().getOnlinePlayers()) {
+            hud.attach(p);
+            // Displays of a previous enable can still ride on the player after a reload
+            p.getScheduler().run(this, task -> removeStaleItemDisplays(p), null);
+        }
         
-        loadData();
+        primarySession = createSession(mainLevelName, true);
+        loadSessions();
+        refreshDifficulty();
+        // Write-behind: only snapshots when something changed or the journal needs compaction,
+        // the file I/O runs on the DataStore threads
+        saveTask = scheduler.runAtFixedRate(this, task -> {
+            long start = System.nanoTime();
+            for (ChallengeSession session : sessions.values()) session.getDataStore().flush(session::snapshot);
+            saveTaskTimer.recordSince(start);
+        }, 20, 20);
+        registerGauges();
+        startMetricsExport();
+    }
+
+    // --- Metrics ---
+
+    private void registerGauges() {
+        metrics.gauge("sessions", sessions::size);
+        metrics.gauge("players_online", () -> getServer().getOnlinePlayers().size());
+        metrics.gauge("item_pool_size", () -> sessions.values().stream().mapToLong(s -> s.getItemPool().size()).sum());
+        metrics.gauge("item_pool_rebuilds", () -> sessions.values().stream().mapToLong(s -> s.getItemPool().getRebuildCount()).sum());
+        metrics.gauge("item_pool_incremental_updates", () -> sessions.values().stream().mapToLong(s -> s.getItemPool().getIncrementalUpdateCount()).sum());
+        metrics.gauge("item_pool_samples", () -> sessions.values().stream().mapToLong(s -> s.getItemPool().getSampleCount()).sum());
+        metrics.gauge("item_pool_alias_rebuilds", () -> sessions.values().stream().mapToLong(s -> s.getItemPool().getAliasRebuildCount()).sum());
+    }
+
+    // Writes the Prometheus text format to a file if metrics.export-file is set, off the tick threads
+    private void startMetricsExport() {
+        if (metricsExportTask != null) metricsExportTask.cancel();
+        metricsExportTask = null;
+        String exportFile = config.getString("metrics.export-file", "");
+        if (exportFile == null || exportFile.isEmpty()) return;
+        Path path = getDataFolder().toPath().resolve(exportFile);
+        long interval = Math.max(1, config.getLong("metrics.export-interval-seconds", 15));
+        metricsExportTask = getServer().getAsyncScheduler().runAtFixedRate(this, task -> {
+            try {
+                metrics.exportTo(path);
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not write metrics to " + path, e);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    private void sendStats(CommandSender sender) {
+        sender.sendMessage(messages.prefixed("stats-title", "§6=== Performance ==="));
+        metrics.getTimers().forEach((name, histogram) -> sender.sendMessage(messages.prefixed("stats-timer",
+            "§e%name% §7n=§f%count% §7p50=§f%p50% §7p99=§f%p99% §7max=§f%max%",
+            "name", name, "count", histogram.getCount(),
+            "p50", TextFormat.formatNanos(histogram.percentile(0.5)), "p99", TextFormat.formatNanos(histogram.percentile(0.99)),
+            "max", TextFormat.formatNanos(histogram.getMax()))));
+        metrics.getCounters().forEach((name, counter) ->
+            sender.sendMessage(messages.prefixed("stats-value", "§e%name%: §f%value%", "name", name, "value", counter.sum())));
+        metrics.getGauges().forEach((name, gauge) ->
+            sender.sendMessage(messages.prefixed("stats-value", "§e%name%: §f%value%", "name", name, "value", gauge.getAsLong())));
+    }
+
+    // --- Sessions ---
+
+    // Creates the sessions listed in config.yml that do not exist yet
+    private void loadSessions() {
+        ConfigurationSection section = config.getConfigurationSection("sessions");
+        if (section == null) return;
+        for (String name : section.getKeys(false)) {
+            if (!sessions.containsKey(name)) createSession(name, false);
+        }
+    }
+
+    private ChallengeSession createSession(String name, boolean primary) {
+        // The primary session keeps its data files where they always were
+        File folder = primary ? getDataFolder() : new File(getDataFolder(), "sessions" + File.separator + name);
+        folder.mkdirs();
+        DataStore store = new DataStore(folder, getLogger(), () -> messages.text("save-data-error", "Could not save data.yml"), metrics);
+        ChallengeSession session = new ChallengeSession(name, primary, store, task -> getServer().getAsyncScheduler().runNow(this, t -> task.run()));
+        applySettings(session);
+        session.setDefaultJokers(config.getInt(session.configPath("default-jokers"), config.getInt("default-jokers", 0)));
+        session.getItemPool().rebuild(configurableBlacklist);
+        applyDifficulty(session);
+        sessions.put(name, session);
+        for (String world : session.getWorldNames()) {
+            if (primary) sessionsByWorld.putIfAbsent(world, session);
+            else sessionsByWorld.put(world, session);
+        }
+        loadData(session);
+        updateActionBar(session);
+        return session;
+    }
+
+    private void applySettings(ChallengeSession session) {
+        ConfigurationSection overrides = session.isPrimary() ? null : config.getConfigurationSection("sessions." + session.getName());
+        session.setSettings(ChallengeSettings.load(config, overrides, messages));
+    }
+
+    private ChallengeSession session(Player player) {
+        return session(player.getWorld());
+    }
+
+    private ChallengeSession session(World world) {
+        return world != null ? sessionsByWorld.getOrDefault(world.getName(), primarySession) : primarySession;
+    }
+
+    // Commands act on the session of the player, the console controls the primary session
+    private ChallengeSession session(CommandSender sender) {
+        return sender instanceof Player ? session((Player) sender) : primarySession;
+    }
+
+    private List<Player> onlinePlayers(ChallengeSession session) {
+        List<Player> result = new ArrayList<>();
+        for (Player p : getServer().getOnlinePlayers()) {
+            if (session(p) == session) result.add(p);
+        }
+        return result;
+    }
+
+    private void broadcast(ChallengeSession session, Component message) {
+        for (Player p : onlinePlayers(session)) p.sendMessage(message);
     }
 
     // --- World Reset & Cleanup Methods ---
     
+    // Renames the queued worlds into the trash folder right away, the deletion itself runs in the background.
+    // A world stays in worlds-to-delete until its folders are completely gone, so failures are retried on the next start.
     private void cleanupOldWorlds() {
+        worldCleaner = new WorldCleaner(getServer().getWorldContainer(), getLogger(), messages);
         List<String> worldsToDelete = config.getStringList("worlds-to-delete");
-        if (worldsToDelete == null || worldsToDelete.isEmpty()) return;
-
-        getLogger().info(messages.getString("cleanup-start", "Cleaning up old world folders..."));
-        List<String> keptWorlds = new ArrayList<>();
+        if (!worldsToDelete.isEmpty()) {
+            getLogger().info(messages.text("cleanup-start", "Cleaning up old world folders..."));
+        }
 
+        List<String> remaining = new ArrayList<>(worldsToDelete);
         for (String worldName : worldsToDelete) {
-            String currentLevelName = getMainLevelName();
-
-            // FIX 1: If the world is active, we must KEEP it in the list
-            if (worldName.equals(currentLevelName)) {
-                getLogger().warning(messages.getString("cleanup-skip-active", "Skipping deletion of %world% as it is currently active! Marked for the next restart.").replace("%world%", worldName));
-                keptWorlds.add(worldName); // <--- That was missing before!
+            // An active world must stay in the list until it has been rotated away
+            if (worldName.equals(mainLevelName)) {
+                getLogger().warning(messages.text("cleanup-skip-active", "Skipping deletion of %world% as it is currently active! Marked for the next restart.", "world", worldName));
                 continue;
             }
-
-            File worldFolder = new File(getServer().getWorldContainer(), worldName);
-            File netherFolder = new File(getServer().getWorldContainer(), worldName + "_nether");
-            File endFolder = new File(getServer().getWorldContainer(), worldName + "_the_end");
-
-            // Löschversuche
-            deleteWorldFolder(worldFolder);
-            deleteWorldFolder(netherFolder);
-            deleteWorldFolder(endFolder);
-            
-            // FIX 2: Check if the deletion was successful. 
-            // If the folder still exists (e.g. Permission Error), keep it in the list!
-            if (worldFolder.exists()) {
-                getLogger().warning(messages.getString("cleanup-delete-failed", "Could not fully delete %world%. It remains in the queue.").replace("%world%", worldName));
-                keptWorlds.add(worldName);
+            // Folders already gone: nothing ends up in the trash, so deleteTrash would never report the world
+            if (!worldCleaner.hasFolders(worldName)) {
+                remaining.remove(worldName);
+                continue;
+            }
+            if (!worldCleaner.moveToTrash(worldName)) {
+                getLogger().warning(messages.text("cleanup-delete-failed", "Could not fully delete %world%. It remains in the queue.", "world", worldName));
             }
         }
+        if (remaining.size() != worldsToDelete.size()) {
+            config.set("worlds-to-delete", remaining);
+            saveConfig();
+        }
 
-        // Aktualisierte Liste speichern
-        config.set("worlds-to-delete", keptWorlds);
-        saveConfig();
+        worldCleaner.deleteTrash(worldName -> getServer().getGlobalRegionScheduler().run(this, task -> {
+            List<String> queue = config.getStringList("worlds-to-delete");
+            if (queue.remove(worldName)) {
+                config.set("worlds-to-delete", queue);
+                saveConfig();
+            }
+        }));
     }
 
     private void prepareWorldReset(CommandSender sender) {
-        String kickMsg = messages.getString("reset-kick-message", "§cThe server is being reset!\n§eRestart shortly...");
-        String playerName = sender.getName();
-        kickMsg = kickMsg.replace("%player%", playerName);
+        Component kickMsg = messages.component("reset-kick-message", "§cThe server is being reset!\n§eRestart shortly...", "player", sender.getName());
         for (Player p : Bukkit.getOnlinePlayers()) {
-            p.kickPlayer(kickMsg);
+            p.kick(kickMsg);
         }
 
         try {
             // IMPORTANT: Here we change the server.properties for the NEXT start
             rotateWorldAndResetSeed();
         } catch (Exception e) {
-            sender.sendMessage(PREFIX + messages.getString("reset-error-properties", "§cError editing server.properties: %error%").replace("%error%", e.getMessage()));
+            sender.sendMessage(messages.prefixed("reset-error-properties", "§cError editing server.properties: %error%", "error", e.getMessage()));
             e.printStackTrace();
             return;
         }
@@ -224,7 +394,8 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         getLogger().info("World rotation set: " + oldLevelName + " -> " + newLevelName);
     }
 
-    private String getMainLevelName() {
+    // Read once on enable, the level name only changes with a restart
+    private String readMainLevelName() {
         try (InputStream input = new FileInputStream("server.properties")) {
             Properties prop = new Properties();
             prop.load(input);
@@ -234,43 +405,23 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         }
     }
 
-    private void deleteWorldFolder(File folder) {
-        if (!folder.exists()) return;
-        
-        getLogger().info(messages.getString("cleanup-deleting-folder", "Deleting inactive world folder: %folder%").replace("%folder%", folder.getName()));
-        Path rootPath = folder.toPath();
-
-        try (Stream<Path> walk = Files.walk(rootPath)) {
-            walk.sorted(Comparator.reverseOrder()) 
-                .forEach(path -> {
-                    try {
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        getLogger().log(Level.WARNING, messages.getString("cleanup-delete-path-failed", "Error deleting: %path%").replace("%path%", path.toString()));
-                    }
-                });
-        } catch (IOException e) {
-            getLogger().log(Level.SEVERE, messages.getString("cleanup-walk-error", "Error walking through directory: %folder%").replace("%folder%", folder.getName()), e);
-        }
-    }
     // ---------------------------
 
-    private void registerCommand(String name) {
-        if (getCommand(name) != null) {
-            getCommand(name).setTabCompleter(this);
-        }
-    }
-
     @Override
     public void onDisable() {
-        itemDisplays.clear();
-        
-        if (actionBarTask != null) actionBarTask.cancel();
-        if (timerTask != null) timerTask.cancel();
+        if (hud != null) hud.shutdown();
         if (saveTask != null) saveTask.cancel();
+        if (metricsExportTask != null) metricsExportTask.cancel();
+        if (worldCleaner != null) worldCleaner.shutdown();
+        if (notifications != null) notifications.shutdown();
         
-        saveData();
-        getLogger().info(messages.getString("plugin-disabled", "FoliaChallenge disabled!"));
+        for (ChallengeSession session : sessions.values()) {
+            session.getPlayers().values().forEach(this::removeItemDisplayOnDisable);
+            session.stopTicking();
+            session.getDataStore().close(session.snapshot());
+        }
+        if (storage != null) storage.close();
+        getLogger().info(messages.text("plugin-disabled", "FoliaChallenge disabled!"));
     }
 
     private void pauseWorlds() {
@@ -280,88 +431,139 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         }
     }
 
-    private void resumeWorlds() {
-        for (org.bukkit.World world : getServer().getWorlds()) {
+    private void pauseWorlds(ChallengeSession session) {
+        for (World world : session.getWorlds()) {
+            world.setGameRule(org.bukkit.GameRule.DO_DAYLIGHT_CYCLE, false);
+            world.setGameRule(org.bukkit.GameRule.DO_WEATHER_CYCLE, false);
+        }
+    }
+
+    private void resumeWorlds(ChallengeSession session) {
+        for (World world : session.getWorlds()) {
             world.setGameRule(org.bukkit.GameRule.DO_DAYLIGHT_CYCLE, true);
             world.setGameRule(org.bukkit.GameRule.DO_WEATHER_CYCLE, true);
         }
     }
 
-    private void assignRandomItem(Player player) {
-        List<Material> available = new ArrayList<>();
-        for (Material m : Material.values()) {
-            if (m.isItem() && ItemBlacklist.isObtainable(m) && !configurableBlacklist.contains(m)) {
-                available.add(m);
-            }
-        }
-        if (!available.isEmpty()) {
-            Material random = available.get(new Random().nextInt(available.size()));
-            assignedItems.put(player.getUniqueId(), random);
+    private ItemNames loadItemNames() {
+        boolean translatable = !"plain".equalsIgnoreCase(config.getString("item-names", "translatable"));
+        return ItemNames.load(getDataFolder(), translatable, config.getString("item-names-locale", "en_us"), getLogger());
+    }
+
+    private void assignRandomItem(ChallengeSession session, Player player) {
+        Material random = session.nextTarget(session.state(player.getUniqueId()));
+        if (random != null) {
+            session.setTarget(session.state(player.getUniqueId()), random);
+            itemsAssigned.increment();
             
-            player.sendMessage(PREFIX + messages.getString("item-assigned", "Item to find: §e%item%").replace("%item%", random.name()));
-            createItemDisplay(player, random);
-            updateBossBar(player);
-            saveData();
+            player.sendMessage(messages.prefixed("item-assigned", "Item to find: §e%item%", "item", itemNames.component(random, player.locale())));
+            createItemDisplay(session, player, random);
+            updateBossBar(session, player);
+            session.getDataStore().itemAssigned(player.getUniqueId(), random);
         }
     }
 
-    private BossBar createBossBar(Player player) {
-        BossBar bar = getServer().createBossBar(messages.getString("bossbar-default", "Current Item: -"), BarColor.BLUE, BarStyle.SOLID);
-        bar.addPlayer(player);
-        bossBars.put(player, bar);
+    private BossBar createBossBar(ChallengeSession session, Player player) {
+        BossBar bar = BossBar.bossBar(messages.component("bossbar-default", "Current Item: -"), 1f, BossBar.Color.BLUE, BossBar.Overlay.PROGRESS);
+        player.showBossBar(bar);
+        session.state(player.getUniqueId()).setBossBar(bar);
         return bar;
     }
 
-    private void createItemDisplay(Player player, Material item) {
-        removeItemDisplay(player);
+    private void createItemDisplay(ChallengeSession session, Player player, Material item) {
+        removeItemDisplay(session, player);
+        removeStaleItemDisplays(player);
         
-        org.bukkit.entity.ArmorStand armorStand = player.getWorld().spawn(player.getLocation().add(0, 2.2, 0), org.bukkit.entity.ArmorStand.class);
-        armorStand.setVisible(false);
-        armorStand.setGravity(false);
-        armorStand.setMarker(true);
-        armorStand.setSmall(true);
-        armorStand.setCustomNameVisible(false);
-        armorStand.getEquipment().setHelmet(new org.bukkit.inventory.ItemStack(item));
+        // Rides on the player, so the client moves it along and no per-move teleports are needed.
+        // Not persistent: it never gets saved with the chunk, even if the server crashes.
+        ItemDisplay display = player.getWorld().spawn(player.getLocation(), ItemDisplay.class, d -> {
+            d.setPersistent(false);
+            d.getPersistentDataContainer().set(targetDisplayKey, PersistentDataType.BOOLEAN, true);
+            d.setItemStack(new ItemStack(item));
+            d.setBillboard(Display.Billboard.VERTICAL);
+            d.setTransformation(new Transformation(new Vector3f(0, 0.6f, 0), new Quaternionf(), new Vector3f(0.5f, 0.5f, 0.5f), new Quaternionf()));
+        });
+        player.addPassenger(display);
         
-        itemDisplays.put(player, armorStand);
+        session.state(player.getUniqueId()).setItemDisplay(display);
     }
 
-    private void removeItemDisplay(Player player) {
-        org.bukkit.entity.ArmorStand armorStand = itemDisplays.remove(player);
-        if (armorStand != null && !armorStand.isDead()) {
-            armorStand.remove();
+    private void removeItemDisplay(ChallengeSession session, Player player) {
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        if (state == null) return;
+        ItemDisplay display = state.getItemDisplay();
+        state.setItemDisplay(null);
+        if (display != null && display.isValid()) {
+            if (Bukkit.isOwnedByCurrentRegion(display)) {
+                display.remove();
+            } else {
+                // Dismounted displays can end up in another region
+                display.getScheduler().run(this, task -> display.remove(), null);
+            }
         }
     }
 
-    private void updateItemDisplay(Player player) {
-        org.bukkit.entity.ArmorStand armorStand = itemDisplays.get(player);
-        if (armorStand != null && !armorStand.isDead()) {
-            armorStand.setVelocity(player.getVelocity().clone().multiply(2));
-            armorStand.teleportAsync(player.getLocation().add(0, 2.2, 0));
+    // Not persistent only helps across restarts. A disabled plugin can no longer schedule tasks, so displays owned by
+    // another region stay mounted until the next enable removes them by their tag
+    private void removeItemDisplayOnDisable(PlayerChallengeState state) {
+        ItemDisplay display = state.getItemDisplay();
+        state.setItemDisplay(null);
+        if (display != null && display.isValid() && Bukkit.isOwnedByCurrentRegion(display)) display.remove();
+    }
+
+    // Tagged displays the state no longer knows about, e.g. left over from before a reload; called on the player's thread
+    private void removeStaleItemDisplays(Player player) {
+        PlayerChallengeState state = session(player).getState(player.getUniqueId());
+        ItemDisplay current = state != null ? state.getItemDisplay() : null;
+        for (Entity passenger : player.getPassengers()) {
+            if (passenger instanceof ItemDisplay && passenger != current && passenger.getPersistentDataContainer().has(targetDisplayKey)) {
+                passenger.remove();
+            }
         }
     }
 
-    private void updateBossBar(Player player) {
-        BossBar bar = bossBars.get(player);
+    // Teleports and respawns dismount passengers, so the display is spawned again next to the player
+    private void remountItemDisplay(Player player) {
+        hud.run(player, () -> {
+            ChallengeSession session = session(player);
+            PlayerChallengeState state = session.getState(player.getUniqueId());
+            if (!session.isTimerRunning() || state == null || state.getAssignedItem() == null) return;
+            ItemDisplay display = state.getItemDisplay();
+            if (display != null && !player.getPassengers().contains(display)) {
+                createItemDisplay(session, player, state.getAssignedItem());
+            }
+        });
+    }
+
+    private void updateBossBar(ChallengeSession session, Player player) {
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        BossBar bar = state != null ? state.getBossBar() : null;
         if (bar != null) {
-            Material item = assignedItems.get(player.getUniqueId());
+            HudState hudState = hud.state(player);
+            Material item = state.getAssignedItem();
             if (item != null) {
-                String itemName = formatItemName(item.name());
-                bar.setTitle(messages.getString("bossbar-item", "Current Item: §e%item%").replace("%item%", itemName));
+                hudState.bossBarTitle(bar, messages.component("bossbar-item", "Current Item: §e%item%", "item", itemNames.component(item, player.locale())));
             } else {
-                bar.setTitle(messages.getString("bossbar-paused", "§cTimer paused"));
+                hudState.bossBarTitle(bar, messages.component("bossbar-paused", "§cTimer paused"));
             }
+            hudState.bossBarProgress(bar, session.getTimerProgress());
         }
     }
 
-    private String formatItemName(String name) {
-        String[] parts = name.toLowerCase().split("_");
-        StringBuilder sb = new StringBuilder();
-        for (String part : parts) {
-            if (sb.length() > 0) sb.append(" ");
-            sb.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
-        }
-        return sb.toString();
+    // Runs every 10 ticks per player; the HudState drops everything the player already sees
+    private void renderHud(Player player, HudState hudState) {
+        ChallengeSession session = session(player);
+        hud.actionBar(player, hudState, session.getActionBar());
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        BossBar bar = state != null ? state.getBossBar() : null;
+        if (bar != null) hudState.bossBarProgress(bar, session.getTimerProgress());
+        ChallengeSettings settings = session.getSettings();
+        // Standings of the player's own session; sent with the rest of the HUD, Folia has no scoreboard API
+        hudState.playerListFooter(player, session.getLeaderboardFooter().render(settings.getTabListTopPlayers(), settings.getTabListTitle(), tabListLine));
+    }
+
+    private Component tabListLine(int rank, String name, int score) {
+        return messages.component("tab-list-entry", "§e%rank%. §f%player% §7- §a%points%", "rank", rank, "player", name, "points", score);
     }
 
     // --- Config & Resources Helpers ---
@@ -376,380 +578,434 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         if (!file.exists()) {
             try (InputStream in = getResource(filename)) {
                 if (in != null) Files.copy(in, file.toPath());
-            } catch (IOException e) { getLogger().log(java.util.logging.Level.SEVERE, messages.getString("copy-resource-error", "Could not copy resource %filename%").replace("%filename%", filename), e); }
+            } catch (IOException e) { getLogger().log(java.util.logging.Level.SEVERE, messages.text("copy-resource-error", "Could not copy resource %filename%", "filename", filename), e); }
         }
     }
 
-    private void loadConfigurableBlacklist() {
+    private Set<Material> loadConfigurableBlacklist() {
+        Set<Material> blacklist = EnumSet.noneOf(Material.class);
         File blacklistFile = new File(getDataFolder(), "items-blacklist.yml");
         if (blacklistFile.exists()) {
             FileConfiguration blacklistConfig = YamlConfiguration.loadConfiguration(blacklistFile);
             List<String> items = blacklistConfig.getStringList("blacklisted-items");
             for (String item : items) {
                 try {
-                    configurableBlacklist.add(Material.valueOf(item.toUpperCase()));
+                    blacklist.add(Material.valueOf(item.toUpperCase()));
                 } catch (IllegalArgumentException e) {
-                    getLogger().warning(messages.getString("invalid-blacklist-material", "Invalid material in blacklist: %item%").replace("%item%", item));
+                    getLogger().warning(messages.text("invalid-blacklist-material", "Invalid material in blacklist: %item%", "item", item));
                 }
             }
         }
+        return blacklist;
     }
 
-    // --- Commands ---
-    @Override
-    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        if (!sender.isOp() && !sender.hasPermission("foliachallenges.admin")) {
-            sender.sendMessage(PREFIX + messages.getString("no-permission", "§cYou do not have permission for this command!"));
-            return true;
+    private void reloadConfigurableBlacklist() {
+        Set<Material> reloaded = loadConfigurableBlacklist();
+        // Only apply the difference to the item pool instead of rebuilding it
+        for (ChallengeSession session : sessions.values()) {
+            ItemPool itemPool = session.getItemPool();
+            for (Material m : configurableBlacklist) {
+                if (!reloaded.contains(m)) itemPool.add(m);
+            }
+            for (Material m : reloaded) {
+                if (!configurableBlacklist.contains(m)) itemPool.remove(m);
+            }
         }
-        
-        String cmdName = command.getName().toLowerCase();
+        configurableBlacklist = reloaded;
+    }
 
-        if (cmdName.equals("start")) {
-            startTimer(sender);
-            return true;
-        }
+    // --- Commands ---
+    // Registered through Paper's Brigadier lifecycle event. The client knows the whole tree: it only shows the commands
+    // a sender may use and checks minutes and item names itself before anything is sent.
+    private void registerCommands() {
+        getLifecycleManager().registerEventHandler(LifecycleEvents.COMMANDS, event -> {
+            Commands commands = event.registrar();
+            commands.register(challengesCommand(), "Manage the challenge");
+            commands.register(timerCommand(), "Manage the challenge timer");
+            commands.register(Commands.literal("start").requires(this::isAdmin).executes(sender(this::startTimer)).build(), "Start the timer");
+            commands.register(resetCommand(), "Reset the world");
+            commands.register(Commands.literal("settings").requires(this::isAdmin).executes(player(this::openSettingsGUI)).build(), "Open the settings GUI");
+        });
+    }
 
-        // --- RESET COMMAND START ---
-        if (cmdName.equals("reset")) {
-            if (args.length == 1 && args[0].equalsIgnoreCase("confirm")) {
+    private LiteralCommandNode<CommandSourceStack> challengesCommand() {
+        return Commands.literal("challenges")
+            .requires(this::isAdmin)
+            .executes(sender(this::sendUsage))
+            .then(Commands.literal("randomitembattle")
+                .executes(sender(this::sendUsage))
+                .then(Commands.literal("listitems").executes(sender(this::listItems)))
+                .then(Commands.literal("listpoints").executes(sender(this::listPoints)))
+                .then(Commands.literal("blockitem")
+                    .then(Commands.argument("item", ArgumentTypes.itemStack())
+                        .suggests(this::suggestItems)
+                        .executes(ctx -> {
+                            blockItem(ctx.getSource().getSender(), ctx.getArgument("item", ItemStack.class).getType());
+                            return Command.SINGLE_SUCCESS;
+                        })))
+                .then(Commands.literal("settings").executes(player(this::openSettingsGUI))))
+            .then(Commands.literal("reload").executes(sender(this::reload)))
+            .then(Commands.literal("stats").executes(sender(this::sendStats)))
+            .then(Commands.literal("history")
+                .executes(sender(this::sendHistory))
+                .then(Commands.argument("player", StringArgumentType.word())
+                    .suggests(this::suggestPlayers)
+                    .executes(ctx -> {
+                        sendPlayerHistory(ctx.getSource().getSender(), StringArgumentType.getString(ctx, "player"));
+                        return Command.SINGLE_SUCCESS;
+                    })))
+            .then(Commands.literal("help").executes(sender(this::sendHelp)))
+            .build();
+    }
+
+    private LiteralCommandNode<CommandSourceStack> timerCommand() {
+        return Commands.literal("timer")
+            .requires(this::isAdmin)
+            .executes(sender(this::sendUsage))
+            .then(Commands.literal("start").executes(sender(this::startTimer)))
+            .then(Commands.literal("stop").executes(sender(this::stopTimer)))
+            .then(Commands.literal("set")
+                .then(Commands.argument("minutes", IntegerArgumentType.integer(1))
+                    .executes(ctx -> {
+                        setTimer(ctx.getSource().getSender(), IntegerArgumentType.getInteger(ctx, "minutes"));
+                        return Command.SINGLE_SUCCESS;
+                    })))
+            .build();
+    }
+
+    private LiteralCommandNode<CommandSourceStack> resetCommand() {
+        return Commands.literal("reset")
+            .requires(this::isAdmin)
+            .executes(sender(this::sendResetWarning))
+            .then(Commands.literal("confirm").executes(sender(sender -> {
                 resetChallengeData(sender);
                 prepareWorldReset(sender);
-            } else {
-                sender.sendMessage(PREFIX + messages.getString("reset-warning-1", "§4§lWARNING: §cPlease confirm the reset command!"));
-                sender.sendMessage(PREFIX + messages.getString("reset-warning-2", "§cThis command clears all §lChallenge Data §r§cand §lgenerates a new world§c!"));
-                sender.sendMessage(PREFIX + messages.getString("reset-confirm-usage", "§7Use §c/reset confirm§7 to continue."));
-            }
-            return true;
-        }
-        // --- RESET COMMAND END ---
+            })))
+            .build();
+    }
 
-        if (cmdName.equals("challenges")) {
-            if (args.length > 0) {
-                String subCmd = args[0].toLowerCase();
-                
-                if (subCmd.equals("randomitembattle")) {
-                    if (args.length < 2) return sendUsage(sender, label);
-                    
-                    if (args[1].equalsIgnoreCase("listitems")) {
-                        listItems(sender);
-                        return true;
-                    } else if (args[1].equalsIgnoreCase("listpoints")) {
-                        listPoints(sender);
-                        return true;
-                    } else if (args[1].equalsIgnoreCase("blockitem")) {
-                        if (args.length < 3) {
-                            sender.sendMessage(PREFIX + messages.getString("help-hint", "Use /challenges help for command list"));
-                            return true;
-                        }
-                        blockItem(sender, args[2]);
-                        return true;
-                    } else if (args[1].equalsIgnoreCase("settings")) {
-                        if (!sender.isOp() && !sender.hasPermission("foliachallenges.admin")) {
-                            sender.sendMessage(PREFIX + messages.getString("no-permission", "§cYou do not have permission for this command!"));
-                            return true;
-                        }
-                        if (!(sender instanceof Player)) {
-                            sender.sendMessage(PREFIX + "Only players can open the settings GUI!");
-                            return true;
-                        }
-                        openSettingsGUI((Player) sender);
-                        return true;
-                    }
-                } else if (subCmd.equals("reload")) {
-                    reloadConfig();
-                    messages = YamlConfiguration.loadConfiguration(new File(getDataFolder(), "messages.yml"));
-                    settingsGUITitle = messages.getString("settings-gui-color", "§b§l") + messages.getString("settings-gui-title", "Random Item Battle Settings");
-                    sender.sendMessage(PREFIX + "Configuration and messages reloaded!");
-                    return true;
-                } else if (subCmd.equals("help")) {
-                    sendHelp(sender);
-                    return true;
-                }
-            }
-            return sendUsage(sender, label);
-        }
+    private boolean isAdmin(CommandSourceStack source) {
+        CommandSender sender = source.getSender();
+        return sender.isOp() || sender.hasPermission("foliachallenges.admin");
+    }
 
-        if (cmdName.equals("timer")) {
-            if (args.length == 0) {
-                sender.sendMessage(PREFIX + messages.getString("usage", "Use §6/challenges help §7to see the command list"));
-                return true;
-            }
-            String subCommand = args[0].toLowerCase();
-            switch (subCommand) {
-                case "start":
-                    startTimer(sender);
-                    break;
-                case "stop":
-                    stopTimer(sender);
-                    break;
-                case "set":
-                    if (args.length < 2) {
-                        sender.sendMessage(PREFIX + messages.getString("help-hint", "Use /challenges help for command list"));
-                        return true;
-                    }
-                    try {
-                        setTimer(sender, Integer.parseInt(args[1]));
-                    } catch (NumberFormatException e) {
-                        sender.sendMessage(PREFIX + messages.getString("invalid-minutes", "§4Invalid number of minutes!"));
-                    }
-                    break;
-                default:
-                    sender.sendMessage(PREFIX + messages.getString("help-hint", "Use /challenges help for command list"));
-                    break;
-            }
-            return true;
-        }
+    private static Command<CommandSourceStack> sender(Consumer<CommandSender> action) {
+        return ctx -> {
+            action.accept(ctx.getSource().getSender());
+            return Command.SINGLE_SUCCESS;
+        };
+    }
 
-        if (cmdName.equals("settings")) {
-            if (!sender.isOp() && !sender.hasPermission("foliachallenges.admin")) {
-                sender.sendMessage(PREFIX + messages.getString("no-permission", "§cYou do not have permission for this command!"));
-                return true;
-            }
-            if (!(sender instanceof Player)) {
-                sender.sendMessage(PREFIX + "Only players can open the settings GUI!");
-                return true;
+    private Command<CommandSourceStack> player(Consumer<Player> action) {
+        return ctx -> {
+            if (ctx.getSource().getSender() instanceof Player player) {
+                action.accept(player);
+            } else {
+                ctx.getSource().getSender().sendMessage(messages.prefix("Only players can open the settings GUI!"));
             }
-            openSettingsGUI((Player) sender);
-            return true;
+            return Command.SINGLE_SUCCESS;
+        };
+    }
+
+    // Answered from the prebuilt index, nothing is lowercased or filtered per material
+    private CompletableFuture<Suggestions> suggestItems(CommandContext<CommandSourceStack> ctx, SuggestionsBuilder builder) {
+        itemKeys.suggest(builder.getRemaining(), builder::suggest);
+        return builder.buildFuture();
+    }
+
+    private CompletableFuture<Suggestions> suggestPlayers(CommandContext<CommandSourceStack> ctx, SuggestionsBuilder builder) {
+        String prefix = builder.getRemainingLowerCase();
+        for (Player p : getServer().getOnlinePlayers()) {
+            if (p.getName().toLowerCase(Locale.ROOT).startsWith(prefix)) builder.suggest(p.getName());
         }
+        return builder.buildFuture();
+    }
 
-        return false;
+    private void sendUsage(CommandSender sender) {
+        sender.sendMessage(messages.prefixed("usage", "Use §6/challenges help §7to see the command list"));
     }
 
-    private boolean sendUsage(CommandSender sender, String label) {
-        sender.sendMessage(PREFIX + messages.getString("usage", "Use §6/challenges help §7to see the command list"));
-        return true;
+    private void sendResetWarning(CommandSender sender) {
+        sender.sendMessage(messages.prefixed("reset-warning-1", "§4§lWARNING: §cPlease confirm the reset command!"));
+        sender.sendMessage(messages.prefixed("reset-warning-2", "§cThis command clears all §lChallenge Data §r§cand §lgenerates a new world§c!"));
+        sender.sendMessage(messages.prefixed("reset-confirm-usage", "§7Use §c/reset confirm§7 to continue."));
     }
 
-    @Override
-    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        String cmdName = command.getName().toLowerCase();
-        
-        if (cmdName.equals("reset")) {
-            if (args.length == 1) return filter(args[0], Arrays.asList("confirm"));
+    private void reload(CommandSender sender) {
+        reloadConfig();
+        config = getConfig();
+        messages = Messages.load(new File(getDataFolder(), "messages.yml"));
+        settingsGUITitle = messages.text("settings-gui-color", "§b§l") + messages.text("settings-gui-title", "Random Item Battle Settings");
+        itemNames = loadItemNames();
+        difficulty = ItemDifficulty.load(new File(getDataFolder(), ItemDifficulty.FILE), getLogger());
+        if (ItemBlacklist.load(new File(getDataFolder(), ItemBlacklist.RULES_FILE), getLogger())) {
+            // Different obtainability rules, the pools are built from scratch
+            configurableBlacklist = loadConfigurableBlacklist();
+            for (ChallengeSession session : sessions.values()) session.getItemPool().rebuild(configurableBlacklist);
+            itemKeys = new ItemKeyIndex(ItemPool.candidates());
+        } else {
+            reloadConfigurableBlacklist();
         }
-
-        if (cmdName.equals("challenges")) {
-            if (args.length == 1) return filter(args[0], Arrays.asList("randomitembattle", "reload", "help"));
-            if (args.length == 2 && args[0].equalsIgnoreCase("randomitembattle")) return filter(args[1], Arrays.asList("listitems", "listpoints", "blockitem", "settings"));
-            if (args.length == 3 && args[1].equalsIgnoreCase("blockitem")) {
-                return Arrays.stream(Material.values()).filter(Material::isItem).map(Material::name).map(String::toLowerCase)
-                        .filter(n -> n.startsWith(args[2].toLowerCase())).collect(Collectors.toList());
-            }
-        } else if (cmdName.equals("timer") && args.length == 1) {
-            return filter(args[0], Arrays.asList("start", "stop", "set"));
+        for (ChallengeSession session : sessions.values()) {
+            applySettings(session);
+            updateActionBar(session);
+            session.getLeaderboardFooter().invalidate();
         }
-        return Collections.emptyList();
-    }
-    
-    private List<String> filter(String arg, List<String> options) {
-        return options.stream().filter(s -> s.toLowerCase().startsWith(arg.toLowerCase())).collect(Collectors.toList());
+        loadSessions();
+        refreshDifficulty();
+        startMetricsExport();
+        hud.invalidateAll();
+        // Same queue, so pending and spilled messages survive; only the sink and limits change
+        notifications.reconfigure(createNotificationSink(), notificationCapacity(), notificationBatch(), notificationDelayMillis());
+        sender.sendMessage(messages.prefix("Configuration and messages reloaded!"));
     }
 
     // --- Timer Logic ---
     private void startTimer(CommandSender sender) {
-        if (!timerSet) {
-            sender.sendMessage(PREFIX + messages.getString("timer-not-set-message", "§cTimer not set!"));
+        ChallengeSession session = session(sender);
+        if (!session.isTimerSet()) {
+            sender.sendMessage(messages.prefixed("timer-not-set-message", "§cTimer not set!"));
             return;
         }
-        if (remainingSeconds == 0) {
-            sender.sendMessage(PREFIX + messages.getString("timer-expired", "§cTimer has expired! §7Set a new time using §l/timer set <minutes>§r§7."));
+        if (session.getRemainingSeconds() == 0) {
+            sender.sendMessage(messages.prefixed("timer-expired", "§cTimer has expired! §7Set a new time using §l/timer set <minutes>§r§7."));
             return;
         }
-        if (timerRunning) {
-            sender.sendMessage(PREFIX + messages.getString("timer-already-running", "Timer is already running!"));
+        if (session.isTimerRunning()) {
+            sender.sendMessage(messages.prefixed("timer-already-running", "Timer is already running!"));
             return;
         }
         
-        timerRunning = true;
-        scheduler.run(this, task -> resumeWorlds());
+        if (!session.resumeTimer()) {
+            sender.sendMessage(messages.prefixed("timer-already-running", "Timer is already running!"));
+            return;
+        }
+        session.getDataStore().timerRemaining(session.getRemainingMillis());
+        startRound(session);
+        scheduler.run(this, task -> resumeWorlds(session));
         
-        for (Player p : getServer().getOnlinePlayers()) {
-            if (p.getGameMode() == GameMode.SURVIVAL) {
-                if (!assignedItems.containsKey(p.getUniqueId())) {
-                    assignRandomItem(p);
-                } else {
-                    Material existing = assignedItems.get(p.getUniqueId());
-                    createItemDisplay(p, existing);
+        for (Player p : onlinePlayers(session)) {
+            hud.run(p, () -> {
+                if (p.getGameMode() == GameMode.SURVIVAL) {
+                    Material existing = session.getAssignedItem(p.getUniqueId());
+                    if (existing == null) {
+                        assignRandomItem(session, p);
+                    } else {
+                        createItemDisplay(session, p, existing);
+                    }
                 }
-            }
-            updateBossBar(p);
-        }
-
-        for (Player p : getServer().getOnlinePlayers()) {
-            p.playSound(p.getLocation(), org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
+                updateBossBar(session, p);
+                p.playSound(p.getLocation(), org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
+            });
         }
-        getServer().broadcastMessage(PREFIX + messages.getString("timer-started-global", "§aThe challenge timer has started!"));
+        broadcast(session, messages.prefixed("timer-started-global", "§aThe challenge timer has started!"));
         
-        saveTask = scheduler.runAtFixedRate(this, task -> saveData(), 20, 20);
-        startTimerTask();
-        updateActionBar();
+        startTimerTask(session);
+        updateActionBar(session);
     }
     
+    // A world reset kicks everyone, so every session starts over
     private void resetChallengeData(CommandSender sender) {
-        if (timerRunning) stopTimer(sender);
-        
-        scores.clear();
-        assignedItems.clear();
-        
-        // Reset timer variables
-        remainingSeconds = 0;
-        timerSeconds = 0;
-        timerSet = false;
-        timerRunning = false;
-        
-        for (Player p : getServer().getOnlinePlayers()) {
-            regionScheduler.run(this, p.getLocation(), task -> removeItemDisplay(p));
-            updateBossBar(p);
-        }
-        
-        // Delete data.yml to prevent recreation
-        File dataFile = new File(getDataFolder(), "data.yml");
-        if (dataFile.exists()) {
-            dataFile.delete();
+        for (ChallengeSession session : sessions.values()) {
+            session.stopTicking();
+            if (session.isTimerRunning()) {
+                scheduler.run(this, task -> pauseWorlds(session));
+            }
+            finishRound(session, false);
+            session.reset();
+            
+            for (Player p : onlinePlayers(session)) {
+                hud.run(p, () -> {
+                    removeItemDisplay(session, p);
+                    updateBossBar(session, p);
+                });
+            }
+            updateActionBar(session);
+            
+            // Delete data.yml to prevent recreation (pending writes are dropped)
+            session.getDataStore().delete();
         }
     }
 
     private void stopTimer(CommandSender sender) {
-        if (!timerRunning) {
-            sender.sendMessage(PREFIX + messages.getString("timer-not-running", "Timer is not running!"));
+        ChallengeSession session = session(sender);
+        // Banks the time that is left, the next start continues from there
+        if (!session.pauseTimer()) {
+            sender.sendMessage(messages.prefixed("timer-not-running", "Timer is not running!"));
             return;
         }
-        timerRunning = false;
-        scheduler.run(this, task -> pauseWorlds());
-        if (timerTask != null) timerTask.cancel();
-        if (saveTask != null) saveTask.cancel();
+        session.stopTicking();
+        session.getDataStore().timerRemaining(session.getRemainingMillis());
+        scheduler.run(this, task -> pauseWorlds(session));
         
-        for (Player p : getServer().getOnlinePlayers()) {
-            regionScheduler.run(this, p.getLocation(), task -> removeItemDisplay(p));
-            updateBossBar(p);
+        for (Player p : onlinePlayers(session)) {
+            hud.run(p, () -> {
+                removeItemDisplay(session, p);
+                updateBossBar(session, p);
+            });
         }
         
-        getServer().broadcastMessage(PREFIX + messages.getString("timer-stopped-global", "§cThe challenge timer has stopped!"));
-        updateActionBar();
-        saveData();
+        broadcast(session, messages.prefixed("timer-stopped-global", "§cThe challenge timer has stopped!"));
+        updateActionBar(session);
+        saveData(session);
     }
 
     private void setTimer(CommandSender sender, int minutes) {
-        timerSeconds = minutes * 60L;
-        remainingSeconds = timerSeconds;
-        timerSet = true;
-        sender.sendMessage(PREFIX + messages.getString("timer-set", "Timer set to §6%minutes% minutes§7!").replace("%minutes%", String.valueOf(minutes)));
-        updateActionBar();
-        saveData();
-    }
-
-    private void startTimerTask() {
-        timerTask = getServer().getGlobalRegionScheduler().runAtFixedRate(this, task -> {
-            if (remainingSeconds > 0) {
-                updateActionBar();
-                remainingSeconds--;
-            } else {
-                timerRunning = false;
-                if (saveTask != null) saveTask.cancel();
+        ChallengeSession session = session(sender);
+        session.setTimer(minutes * 60L);
+        sender.sendMessage(messages.prefixed("timer-set", "Timer set to §6%minutes% minutes§7!", "minutes", minutes));
+        updateActionBar(session);
+        saveData(session);
+    }
+
+    // Ticks on the region owning the session's spawn, not on the global region.
+    // The deadline decides when the challenge ends, the task only renders, journals the time left and checks for the end,
+    // so late or skipped runs under load neither stretch the challenge nor show a wrong time.
+    private void startTimerTask(ChallengeSession session) {
+        long[] shownSeconds = {-1};
+        session.startTicking(this, task -> {
+            long start = System.nanoTime();
+            if (!session.isTimerExpired()) {
+                long remaining = session.getRemainingSeconds();
+                if (remaining != shownSeconds[0]) {
+                    shownSeconds[0] = remaining;
+                    updateActionBar(session);
+                    session.getDataStore().timerRemaining(session.getRemainingMillis());
+                }
+            } else if (session.pauseTimer()) {
+                session.getDataStore().timerRemaining(0);
                 scheduler.run(this, t -> {
-                    pauseWorlds();
-                    for (Player p : getServer().getOnlinePlayers()) {
-                        regionScheduler.run(this, p.getLocation(), removeTask -> removeItemDisplay(p));
+                    pauseWorlds(session);
+                    for (Player p : onlinePlayers(session)) {
+                        hud.run(p, () -> removeItemDisplay(session, p));
                     }
                 });
-                endChallenge();
-                updateActionBar();
+                endChallenge(session);
+                updateActionBar(session);
                 task.cancel();
             }
-        }, 1, 20);
+            timerTaskTimer.recordSince(start);
+        });
     }
 
-    private void endChallenge() {
+    private void endChallenge(ChallengeSession session) {
         
-        List<Map.Entry<UUID, Integer>> sortedScores = scores.entrySet().stream()
-            .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
-            .collect(Collectors.toList());
-
-        getServer().broadcastMessage(PREFIX + messages.getString("color-title", "§6§l") + messages.getString("leaderboard-title", "§6=== Challenge Results ==="));
+        // Already sorted, the leaderboard is kept up to date on every score change
+        List<Leaderboard.Entry> sortedScores = session.getLeaderboard().entries();
+        
+        broadcast(session, messages.prefix(messages.text("color-title", "§6§l") + messages.text("leaderboard-title", "§6=== Challenge Results ===")));
         
         if (sortedScores.isEmpty()) {
-            getServer().broadcastMessage(PREFIX + messages.getString("no-results", "§7No results to display."));
+            broadcast(session, messages.prefixed("no-results", "§7No results to display."));
         } else {
             int rank = 1;
             for (int i = 0; i < sortedScores.size(); i++) {
-                if (i > 0 && !sortedScores.get(i).getValue().equals(sortedScores.get(i-1).getValue())) rank = i + 1;
+                if (i > 0 && sortedScores.get(i).getScore() != sortedScores.get(i-1).getScore()) rank = i + 1;
                 
-                String pName = Bukkit.getOfflinePlayer(sortedScores.get(i).getKey()).getName();
-                if (pName == null) pName = "Unknown";
+                String pName = getPlayerName(session, sortedScores.get(i).getUuid());
                 
-                String entry = messages.getString("leaderboard-entry", "#%rank% %player% §r- §a%points% Points")
-                    .replace("%rank%", String.valueOf(rank))
-                    .replace("%player%", pName)
-                    .replace("%points%", String.valueOf(sortedScores.get(i).getValue()));
-                getServer().broadcastMessage(PREFIX + messages.getString("color-rank", "§e") + entry);
+                String entry = messages.text("leaderboard-entry", "#%rank% %player% §r- §a%points% Points",
+                    "rank", rank, "player", pName, "points", sortedScores.get(i).getScore());
+                broadcast(session, messages.prefix(messages.text("color-rank", "§e") + entry));
             }
         }
         
-        getServer().broadcastMessage(PREFIX + messages.getString("color-separator", "§6§l========================"));
+        broadcast(session, messages.prefixed("color-separator", "§6§l========================"));
+        finishRound(session, true);
 
-        for (Player p : getServer().getOnlinePlayers()) {
-            p.playSound(p.getLocation(), org.bukkit.Sound.ENTITY_FIREWORK_ROCKET_BLAST, 1.0f, 1.0f);
-            updateBossBar(p);
+        for (Player p : onlinePlayers(session)) {
+            hud.run(p, () -> {
+                p.playSound(p.getLocation(), org.bukkit.Sound.ENTITY_FIREWORK_ROCKET_BLAST, 1.0f, 1.0f);
+                updateBossBar(session, p);
+            });
         }
         
-        saveData();
+        saveData(session);
+    }
+
+    private String getPlayerName(ChallengeSession session, UUID uuid) {
+        Leaderboard leaderboard = session.getLeaderboard();
+        String name = leaderboard.getName(uuid);
+        if (name == null) {
+            // Only for players that never joined since the name cache exists
+            name = Bukkit.getOfflinePlayer(uuid).getName();
+            if (name == null) return "Unknown";
+            leaderboard.rememberName(uuid, name);
+        }
+        return name;
     }
 
     private void listItems(CommandSender sender) {
-        sender.sendMessage(PREFIX + messages.getString("assigned-items-title", "§6=== Assigned Items ==="));
-        if (assignedItems.isEmpty()) {
-            sender.sendMessage(PREFIX + messages.getString("no-assigned-items", "§7No items assigned yet."));
+        ChallengeSession session = session(sender);
+        sender.sendMessage(messages.prefixed("assigned-items-title", "§6=== Assigned Items ==="));
+        if (session.getPlayers().values().stream().noneMatch(state -> state.getAssignedItem() != null)) {
+            sender.sendMessage(messages.prefixed("no-assigned-items", "§7No items assigned yet."));
         } else {
-            assignedItems.forEach((uuid, mat) -> {
+            session.getPlayers().forEach((uuid, state) -> {
+                Material mat = state.getAssignedItem();
                 Player p = Bukkit.getPlayer(uuid);
-                if (p != null) {
-                     sender.sendMessage(PREFIX + messages.getString("list-item-entry", "§e%player% §r- §a%item%").replace("%player%", p.getName()).replace("%item%", formatItemName(mat.name())));
+                if (p != null && mat != null) {
+                     sender.sendMessage(messages.prefixed("list-item-entry", "§e%player% §r- §a%item%", "player", p.getName(), "item", itemNames.component(mat, sender instanceof Player viewer ? viewer.locale() : Locale.ROOT)));
                 }
             });
         }
-        sender.sendMessage(PREFIX + messages.getString("color-separator", "§6§l==================="));
+        sender.sendMessage(messages.prefixed("color-separator", "§6§l==================="));
     }
 
     private void listPoints(CommandSender sender) {
-        sender.sendMessage(PREFIX + messages.getString("player-points-title", "§6==== Player Points ===="));
-        List<String> pointMessages = new ArrayList<>();
-        scores.forEach((uuid, points) -> {
-             Player p = Bukkit.getPlayer(uuid);
-             if (p != null && points > 0) {
-                 pointMessages.add(PREFIX + messages.getString("list-points-entry", "§e%player% §r- §a%points% Points").replace("%player%", p.getName()).replace("%points%", String.valueOf(points)));
+        ChallengeSession session = session(sender);
+        sender.sendMessage(messages.prefixed("player-points-title", "§6==== Player Points ===="));
+        List<Component> pointMessages = new ArrayList<>();
+        for (Leaderboard.Entry entry : session.getLeaderboard().entries()) {
+             Player p = Bukkit.getPlayer(entry.getUuid());
+             if (p != null) {
+                 pointMessages.add(messages.prefixed("list-points-entry", "§e%player% §r- §a%points% Points", "player", p.getName(), "points", entry.getScore()));
              }
-        });
+        }
         if (pointMessages.isEmpty()) {
-            sender.sendMessage(PREFIX + messages.getString("no-points", "§7No points recorded yet."));
+            sender.sendMessage(messages.prefixed("no-points", "§7No points recorded yet."));
         } else {
             pointMessages.forEach(sender::sendMessage);
         }
-        sender.sendMessage(PREFIX + messages.getString("color-separator", "§6§l==================="));
+        sender.sendMessage(messages.prefixed("color-separator", "§6§l==================="));
     }
 
-    private void blockItem(CommandSender sender, String itemName) {
+    // Region threads read the set without a lock, so it is copied instead of changed in place
+    private synchronized boolean addToConfigurableBlacklist(Material material) {
+        Set<Material> current = configurableBlacklist;
+        if (current.contains(material)) return false;
+        Set<Material> updated = EnumSet.copyOf(current);
+        updated.add(material);
+        configurableBlacklist = updated;
+        return true;
+    }
+
+    // The blacklist is shared, so a blocked item leaves the pool of every session
+    private void blockItem(CommandSender sender, Material material) {
         if (!sender.hasPermission("foliachallenge.admin")) {
-            sender.sendMessage(messages.getString("no-permission", "Keine Rechte!"));
+            sender.sendMessage(messages.text("no-permission", "Keine Rechte!"));
             return;
         }
         try {
-            Material material = Material.valueOf(itemName.toUpperCase());
-            if (configurableBlacklist.contains(material)) {
-                sender.sendMessage(PREFIX + messages.getString("item-already-blacklisted", "§cItem is already on the blacklist!"));
+            if (!addToConfigurableBlacklist(material)) {
+                sender.sendMessage(messages.prefixed("item-already-blacklisted", "§cItem is already on the blacklist!"));
                 return;
             }
-            configurableBlacklist.add(material);
             
-            for (Map.Entry<UUID, Material> entry : new HashMap<>(assignedItems).entrySet()) {
-                if (entry.getValue() == material) {
-                    Player p = Bukkit.getPlayer(entry.getKey());
-                    if (p != null) {
-                        assignRandomItem(p);
-                        p.sendMessage(PREFIX + messages.getString("item-blacklisted-reassigned", "§eDas Item %item% wurde geblacklistet. Du hast ein neues Item zugewiesen bekommen!").replace("%item%", material.name()));
-                    } else {
-                        assignedItems.remove(entry.getKey());
+            for (ChallengeSession session : sessions.values()) {
+                session.getItemPool().remove(material);
+                for (PlayerChallengeState state : session.getPlayers().values()) {
+                    if (state.getAssignedItem() == material) {
+                        Player p = Bukkit.getPlayer(state.getUuid());
+                        if (p != null) {
+                            hud.run(p, () -> {
+                                assignRandomItem(session, p);
+                                p.sendMessage(messages.prefixed("item-blacklisted-reassigned", "§eDas Item %item% wurde geblacklistet. Du hast ein neues Item zugewiesen bekommen!", "item", itemNames.component(material, p.locale())));
+                            });
+                        } else if (state.clearAssignedItem(material)) {
+                            session.getTargetIndex().move(state.getUuid(), material, null);
+                            saveData(session);
+                        }
                     }
                 }
             }
@@ -760,219 +1016,521 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
             list.add(material.name());
             c.set("blacklisted-items", list);
             c.save(f);
-            sender.sendMessage(PREFIX + messages.getString("item-blacklisted", "§aItem added to blacklist!"));
+            sender.sendMessage(messages.prefixed("item-blacklisted", "§aItem added to blacklist!"));
             
-            if (config.getBoolean("share-blacklisted-items-to-developer", true)) {
-                sendDiscordWebhook("Item-blacklist: " + material.name());
+            if (session(sender).getSettings().isShareBlacklistedItems()) {
+                notifications.offer("Item-blacklist: " + itemNames.plain(material) + " (" + material.name() + ")");
             }
         } catch (Exception e) {
-            sender.sendMessage(PREFIX + messages.getString("block-item-error", "§cError: %error%").replace("%error%", e.getMessage()));
+            sender.sendMessage(messages.prefixed("block-item-error", "§cError: %error%", "error", e.getMessage()));
         }
     }
     
-    private void sendDiscordWebhook(String msg) {
-         try {
-            java.net.URL url = new java.net.URL("https://discord.com/api/webhooks/1456737969581850684/YXYsctMK0K5a3m6eM65rp9WnFcddCTLmSIL9jjfQ2V1k8HOYBFuAxCKZTQs-xYjWGUMW");
-            java.net.HttpURLConnection conn = (java.net.HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("POST");
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setDoOutput(true);
-            String json = "{\"content\":\"" + msg + "\"}";
-            try (java.io.OutputStream os = conn.getOutputStream()) { os.write(json.getBytes("utf-8")); }
-            conn.getResponseCode();
-        } catch (Exception e) { e.printStackTrace(); }
-    }
-
-    private void updateActionBar() {
-        String msg;
-        if (!timerSet) msg = messages.getString("timer-not-set", "• Zeit nicht gesetzt •");
-        else {
-            String time = formatTime(remainingSeconds);
-            String color = timerRunning ? "§a" : "§c";
-            msg = messages.getString("timer-display", "• Zeit: %time% •").replace("%time%", color + time + "§f");
+    // --- History ---
+
+    private ChallengeStorage createStorage() {
+        if (config.getString("storage.type", "sqlite").equalsIgnoreCase("sqlite")) {
+            try {
+                return SqliteStorage.open(new File(getDataFolder(), "history.db"), getLogger(), metrics);
+            } catch (SQLException e) {
+                getLogger().log(Level.WARNING, "Could not open history.db, falling back to history.yml", e);
+            }
+        }
+        return new YamlStorage(getDataFolder(), getLogger());
+    }
+
+    // A round begins when the timer of a fresh challenge is started for the first time
+    private void startRound(ChallengeSession session) {
+        if (session.getRoundId() != null) return;
+        String roundId = UUID.randomUUID().toString();
+        session.setRoundId(roundId);
+        Long raceSeed = null;
+        ChallengeSettings settings = session.getSettings();
+        if (settings.isRaceMode()) {
+            raceSeed = settings.getRaceSeed() != 0 ? settings.getRaceSeed() : ThreadLocalRandom.current().nextLong();
+            session.startRace(raceSeed);
+            broadcast(session, messages.prefixed("race-mode-started", "§7Race mode: everyone gets the same items in the same order §8(seed %seed%)", "seed", raceSeed));
         }
-        for (Player p : Bukkit.getOnlinePlayers()) p.sendActionBar(msg);
+        storage.roundStarted(roundId, session.getName(), System.currentTimeMillis(), session.getTimerSeconds(), raceSeed);
+        saveData(session);
     }
 
-    private String formatTime(long s) {
-        return (s >= 3600) ? String.format("%02d:%02d:%02d", s/3600, (s%3600)/60, s%60) : String.format("%02d:%02d", s/60, s%60);
+    private void finishRound(ChallengeSession session, boolean completed) {
+        String roundId = session.getRoundId();
+        if (roundId == null) return;
+        session.setRoundId(null);
+        storage.roundFinished(roundId, System.currentTimeMillis(), completed, results(session));
+        saveData(session);
+        // The search times of this round are queued before the query, so the weights include them
+        refreshDifficulty();
+    }
+
+    // Recomputes the difficulty tiers from the history; the pools build their new alias tables in the background
+    private void refreshDifficulty() {
+        ItemDifficulty current = difficulty;
+        storage.searchTimes().whenComplete((times, error) -> {
+            if (error != null) {
+                getLogger().log(Level.WARNING, "Could not read item search times, keeping the current difficulty tiers", error);
+                return;
+            }
+            current.update(times);
+            for (ChallengeSession session : sessions.values()) applyDifficulty(session);
+        });
+    }
+
+    private void applyDifficulty(ChallengeSession session) {
+        session.getItemPool().setWeights(difficulty.weights(session.getSettings().getDifficultyTiers()));
+    }
+
+    // Ranked players first (same score = same rank, like the results broadcast), then players that took part without points
+    private List<ChallengeStorage.PlayerResult> results(ChallengeSession session) {
+        List<Leaderboard.Entry> entries = session.getLeaderboard().entries();
+        List<ChallengeStorage.PlayerResult> results = new ArrayList<>();
+        Set<UUID> ranked = new HashSet<>();
+        int rank = 1;
+        for (int i = 0; i < entries.size(); i++) {
+            Leaderboard.Entry entry = entries.get(i);
+            if (i > 0 && entry.getScore() != entries.get(i - 1).getScore()) rank = i + 1;
+            results.add(new ChallengeStorage.PlayerResult(entry.getUuid(), getPlayerName(session, entry.getUuid()), entry.getScore(), rank));
+            ranked.add(entry.getUuid());
+        }
+        for (PlayerChallengeState state : session.getPlayers().values()) {
+            if (state.getAssignedItem() == null || ranked.contains(state.getUuid())) continue;
+            results.add(new ChallengeStorage.PlayerResult(state.getUuid(), getPlayerName(session, state.getUuid()), 0, entries.size() + 1));
+        }
+        return results;
+    }
+
+    private void sendHistory(CommandSender sender) {
+        int limit = Math.max(1, config.getInt("storage.history-entries", 10));
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+        storage.recentRounds(session(sender).getName(), limit).whenComplete((rounds, error) -> reply(sender, () -> {
+            if (error != null) {
+                sender.sendMessage(messages.prefixed("history-error", "§cCould not read the history: %error%", "error", error.getMessage()));
+                return;
+            }
+            sender.sendMessage(messages.prefixed("history-title", "§6=== Challenge History ==="));
+            if (rounds.isEmpty()) {
+                sender.sendMessage(messages.prefixed("history-empty", "§7No finished challenges yet."));
+            }
+            for (ChallengeStorage.RoundSummary round : rounds) {
+                String winner = round.getWinner() != null ? round.getWinner() : messages.text("history-no-winner", "nobody");
+                sender.sendMessage(messages.prefixed(round.isCompleted() ? "history-entry" : "history-entry-aborted",
+                    round.isCompleted() ? "§e%date% §7(%duration%) §r- §a%winner% §7with §a%points% Points§7, %players% players"
+                        : "§e%date% §7(%duration%) §r- §a%winner% §7with §a%points% Points§7, %players% players §c(reset)",
+                    "date", format.format(Instant.ofEpochMilli(round.getStartedAt())),
+                    "duration", TextFormat.formatTime(Math.max(0, round.getEndedAt() - round.getStartedAt()) / 1000),
+                    "winner", winner, "points", round.getWinnerScore(), "players", round.getPlayers()));
+            }
+            sender.sendMessage(messages.prefixed("color-separator", "§6§l==================="));
+        }));
+    }
+
+    private void sendPlayerHistory(CommandSender sender, String playerName) {
+        storage.playerStats(playerName).whenComplete((stats, error) -> reply(sender, () -> {
+            if (error != null) {
+                sender.sendMessage(messages.prefixed("history-error", "§cCould not read the history: %error%", "error", error.getMessage()));
+            } else if (stats == null) {
+                sender.sendMessage(messages.prefixed("history-player-unknown", "§c%player% has not finished a challenge yet.", "player", playerName));
+            } else {
+                sender.sendMessage(messages.prefixed("history-player", "§e%player%§7: §f%rounds% §7challenges, §f%wins% §7wins, §f%items% §7items found, best §f%best% §7Points",
+                    "player", stats.getName(), "rounds", stats.getRounds(), "wins", stats.getWins(), "items", stats.getItemsFound(), "best", stats.getBestScore()));
+            }
+        }));
+    }
+
+    // Query results arrive on the storage thread, the answer is sent from the sender's own thread
+    private void reply(CommandSender sender, Runnable reply) {
+        if (sender instanceof Player player) {
+            hud.run(player, reply);
+        } else {
+            scheduler.run(this, task -> reply.run());
+        }
+    }
+
+    // --- Notifications ---
+
+    private NotificationQueue createNotificationQueue() {
+        return new NotificationQueue(createNotificationSink(), getDataFolder().toPath().resolve("notifications-spill.txt"), getLogger(), metrics,
+            notificationCapacity(), notificationBatch(), notificationDelayMillis());
+    }
+
+    private NotificationSink createNotificationSink() {
+        NotificationSink sink;
+        String type = config.getString("notifications.sink", "webhook").toLowerCase(Locale.ROOT);
+        switch (type) {
+            case "file":
+                sink = new FileSink(getDataFolder().toPath().resolve(config.getString("notifications.file", "notifications.log")));
+                break;
+            case "none":
+                sink = NotificationSink.NONE;
+                break;
+            default:
+                String url = config.getString("notifications.url", "");
+                Duration timeout = Duration.ofSeconds(Math.max(1, config.getLong("notifications.timeout-seconds", 5)));
+                sink = new WebhookSink(URI.create(url == null || url.isEmpty() ? DEVELOPER_WEBHOOK : url), timeout);
+                break;
+        }
+        return sink;
+    }
+
+    private int notificationCapacity() {
+        return Math.max(1, config.getInt("notifications.queue-capacity", 1000));
+    }
+
+    private int notificationBatch() {
+        return Math.max(1, config.getInt("notifications.max-batch", 20));
+    }
+
+    private long notificationDelayMillis() {
+        return TimeUnit.SECONDS.toMillis(Math.max(0, config.getLong("notifications.batch-seconds", 5)));
+    }
+
+    // Rendered once per session and second, all players of the session get the same component
+    private void updateActionBar(ChallengeSession session) {
+        Component msg;
+        if (!session.isTimerSet()) msg = messages.component("timer-not-set", "• Zeit nicht gesetzt •");
+        else {
+            String time = TextFormat.formatTime(session.getRemainingSeconds());
+            String color = session.isTimerRunning() ? "§a" : "§c";
+            msg = messages.component("timer-display", "• Zeit: %time% •", "time", color + time + "§f");
+        }
+        session.setActionBar(msg);
     }
 
     // --- Events ---
     @EventHandler
     public void onPlayerJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
+        hud.attach(player);
+        enterSession(session(player), player);
+    }
+
+    // Shows the HUD of the session the player is in and hands out a target if it is running
+    private void enterSession(ChallengeSession session, Player player) {
+        session.getLeaderboard().rememberName(player.getUniqueId(), player.getName());
         if (player.getGameMode() == GameMode.SURVIVAL) {
-            createBossBar(player);
+            createBossBar(session, player);
         }
         
-        if (assignedItems.containsKey(player.getUniqueId())) {
-            createItemDisplay(player, assignedItems.get(player.getUniqueId()));
-        } else if (timerRunning && player.getGameMode() == GameMode.SURVIVAL) {
-            assignRandomItem(player);
+        PlayerChallengeState state = session.state(player.getUniqueId());
+        if (state.getAssignedItem() != null) {
+            createItemDisplay(session, player, state.getAssignedItem());
+        } else if (session.isTimerRunning() && player.getGameMode() == GameMode.SURVIVAL) {
+            assignRandomItem(session, player);
         }
         if (player.getGameMode() == GameMode.SURVIVAL) {
-            updateBossBar(player);
+            updateBossBar(session, player);
         }
-        if (!jokerCounts.containsKey(player.getUniqueId())) {
-            jokerCounts.put(player.getUniqueId(), defaultJokers);
+        state.initJokers(session.getDefaultJokers());
+        updatePlayerJokers(session, player);
+    }
+
+    private void leaveSession(ChallengeSession session, Player player) {
+        removeItemDisplay(session, player);
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        if (state != null) {
+            BossBar bar = state.getBossBar();
+            if (bar != null) player.hideBossBar(bar);
+            state.setBossBar(null);
         }
-        updatePlayerJokers(player);
     }
 
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
-        removeItemDisplay(player);
-        bossBars.remove(player);
+        hud.detach(player);
+        ChallengeSession session = session(player);
+        removeItemDisplay(session, player);
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        if (state != null) state.setBossBar(null);
     }
 
     @EventHandler
-    public void onPlayerPickupItem(PlayerPickupItemEvent event) {
+    public void onChangedWorld(PlayerChangedWorldEvent event) {
         Player player = event.getPlayer();
-        if (!timerRunning || player.getGameMode() != GameMode.SURVIVAL) return;
-        
-        Material assigned = assignedItems.get(player.getUniqueId());
-        if (assigned != null && event.getItem().getItemStack().getType() == assigned) {
-            scores.put(player.getUniqueId(), scores.getOrDefault(player.getUniqueId(), 0) + 1);
-            player.sendMessage(PREFIX + messages.getString("item-found", "You've found §e%item%").replace("%item%", assigned.name()));
-            player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
-            assignRandomItem(player);
+        ChallengeSession from = session(event.getFrom());
+        ChallengeSession to = session(player);
+        if (from == to) return;
+        // Scores stay with the old session, the player continues there when coming back
+        leaveSession(from, player);
+        enterSession(to, player);
+    }
+
+    @EventHandler
+    public void onPlayerPickupItem(EntityPickupItemEvent event) {
+        long start = System.nanoTime();
+        try {
+            if (!(event.getEntity() instanceof Player)) return;
+            Player player = (Player) event.getEntity();
+            ChallengeSession session = session(player);
+            if (!session.isTimerRunning()) return;
+            Material type = event.getItem().getItemStack().getType();
+            if (!session.getTargetIndex().isTarget(type, player.getUniqueId()) || player.getGameMode() != GameMode.SURVIVAL) return;
+
+            PlayerChallengeState state = session.getState(player.getUniqueId());
+            if (state != null && state.getAssignedItem() == type) {
+                itemFound(session, player, state, type);
+            }
+        } finally {
+            pickupTimer.recordSince(start);
         }
     }
+
+    // Crafting, smelting, trading and chest looting all end in a click on the result or container slot
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onInventoryClickForTarget(InventoryClickEvent event) {
+        long start = System.nanoTime();
+        try {
+            if (!(event.getWhoClicked() instanceof Player)) return;
+            Player player = (Player) event.getWhoClicked();
+            ChallengeSession session = session(player);
+            if (!session.isTimerRunning()) return;
+            UUID uuid = player.getUniqueId();
+            TargetIndex targetIndex = session.getTargetIndex();
+            ItemStack current = event.getCurrentItem();
+            ItemStack cursor = event.getCursor();
+            if ((current != null && targetIndex.isTarget(current.getType(), uuid))
+                    || (cursor != null && targetIndex.isTarget(cursor.getType(), uuid))) {
+                // The click is applied after the event, so compare the amount with the inventory on the next tick
+                checkTargetNextTick(session, player);
+            }
+        } finally {
+            inventoryClickTargetTimer.recordSince(start);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onFurnaceExtract(FurnaceExtractEvent event) {
+        Player player = event.getPlayer();
+        ChallengeSession session = session(player);
+        if (session.isTimerRunning() && session.getTargetIndex().isTarget(event.getItemType(), player.getUniqueId())) {
+            checkTargetNextTick(session, player);
+        }
+    }
+
+    private void checkTargetNextTick(ChallengeSession session, Player player) {
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        Material assigned = state != null ? state.getAssignedItem() : null;
+        if (assigned == null) return;
+        TargetAcquisition check = TargetAcquisition.before(assigned, player.getInventory().getContents(), player.getItemOnCursor());
+        hud.run(player, () -> checkInventoryForTarget(player, check));
+    }
+
+    private void checkInventoryForTarget(Player player, TargetAcquisition check) {
+        ChallengeSession session = session(player);
+        if (!session.isTimerRunning() || player.getGameMode() != GameMode.SURVIVAL) return;
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        if (state == null) return;
+        if (check.acquired(state.getAssignedItem(), player.getInventory().getContents(), player.getItemOnCursor())) {
+            itemFound(session, player, state, check.getTarget());
+        }
+    }
+
+    private void itemFound(ChallengeSession session, Player player, PlayerChallengeState state, Material assigned) {
+        int score = state.incrementScore();
+        itemsFound.increment();
+        session.getLeaderboard().update(player.getUniqueId(), score);
+        session.getDataStore().itemFound(player.getUniqueId(), assigned, score);
+        String roundId = session.getRoundId();
+        if (roundId != null) {
+            long assignedAt = state.getAssignedAtMillis();
+            long searchMillis = assignedAt >= 0 ? Math.max(0, session.getElapsedMillis() - assignedAt) : -1;
+            storage.itemFound(roundId, player.getUniqueId(), assigned, System.currentTimeMillis(), searchMillis);
+        }
+        player.sendMessage(messages.prefixed("item-found", "You've found §e%item%", "item", itemNames.component(assigned, player.locale())));
+        player.playSound(player.getLocation(), org.bukkit.Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
+        assignRandomItem(session, player);
+    }
     
     @EventHandler
     public void onMove(PlayerMoveEvent e) {
-        Player player = e.getPlayer();
-        if (!config.getBoolean("allow-movement-without-timer", false) && !timerRunning && player.getGameMode() == GameMode.SURVIVAL) {
-            if (e.getFrom().getX() != e.getTo().getX() || e.getFrom().getZ() != e.getTo().getZ()) {
-                e.setCancelled(true);
-                player.sendTitle(
-                    "§c§l" + messages.getString("timer-paused-title", "STOP!"), 
-                    messages.getString("timer-paused-subtitle", "Der Timer ist pausiert!"), 
-                    10, 70, 20
-                );
+        long start = System.nanoTime();
+        try {
+            // Fast path: while the timer runs (or movement is allowed) there is nothing to check
+            Player player = e.getPlayer();
+            ChallengeSession session = session(player);
+            ChallengeSettings current = session.getSettings();
+            if (!FreezeCheck.cancelsMove(session.isTimerRunning(), current.isAllowMovementWithoutTimer(), player.getGameMode(), e.getFrom(), e.getTo())) return;
+
+            e.setCancelled(true);
+            // The title stays for a few seconds, resending it on every cancelled move only floods the client
+            if (session.state(player.getUniqueId()).tryFreezeTitle(System.nanoTime())) {
+                player.showTitle(current.getFreezeTitle());
             }
+        } finally {
+            moveTimer.recordSince(start);
         }
-        if (timerRunning) updateItemDisplay(player);
     }
 
     @EventHandler
-    public void onBlockBreak(BlockBreakEvent e) { if (!timerRunning && e.getPlayer().getGameMode() == GameMode.SURVIVAL) e.setCancelled(true); }
+    public void onTeleport(PlayerTeleportEvent e) { remountItemDisplay(e.getPlayer()); }
+    @EventHandler
+    public void onRespawn(PlayerRespawnEvent e) { remountItemDisplay(e.getPlayer()); }
+
+    private boolean isFrozen(Player player) {
+        return FreezeCheck.isFrozen(session(player).isTimerRunning(), player.getGameMode());
+    }
+
+    @EventHandler
+    public void onBlockBreak(BlockBreakEvent e) { if (isFrozen(e.getPlayer())) e.setCancelled(true); }
     @EventHandler
     public void onBlockPlace(BlockPlaceEvent e) { 
-        if (e.getItemInHand().getType() == Material.BARRIER || (!timerRunning && e.getPlayer().getGameMode() == GameMode.SURVIVAL)) 
+        if (jokerItems.isJoker(e.getItemInHand()) || isFrozen(e.getPlayer())) 
             e.setCancelled(true); 
     }
     @EventHandler
-    public void onDmg(EntityDamageEvent e) { if (e.getEntity() instanceof Player && !timerRunning && ((Player)e.getEntity()).getGameMode() == GameMode.SURVIVAL) e.setCancelled(true); }
+    public void onDmg(EntityDamageEvent e) { if (e.getEntity() instanceof Player && isFrozen((Player) e.getEntity())) e.setCancelled(true); }
     @EventHandler
-    public void onTarget(EntityTargetLivingEntityEvent e) { if (e.getTarget() instanceof Player && !timerRunning && ((Player)e.getTarget()).getGameMode() == GameMode.SURVIVAL) e.setCancelled(true); }
+    public void onTarget(EntityTargetLivingEntityEvent e) { if (e.getTarget() instanceof Player && isFrozen((Player) e.getTarget())) e.setCancelled(true); }
     @EventHandler
     public void onGMChange(PlayerGameModeChangeEvent e) {
         Player player = e.getPlayer();
-        UUID uuid = player.getUniqueId();
+        ChallengeSession session = session(player);
+        PlayerChallengeState state = session.state(player.getUniqueId());
         if (e.getNewGameMode() == GameMode.SURVIVAL) {
-            BossBar bar = bossBars.get(player);
+            BossBar bar = state.getBossBar();
             if (bar == null) {
-                createBossBar(player);
+                createBossBar(session, player);
             } else {
-                bar.addPlayer(player);
+                player.showBossBar(bar);
             }
-            if (timerRunning) {
-                if (assignedItems.containsKey(uuid)) {
-                    createItemDisplay(player, assignedItems.get(uuid));
+            if (session.isTimerRunning()) {
+                if (state.getAssignedItem() != null) {
+                    createItemDisplay(session, player, state.getAssignedItem());
                 } else {
-                    assignRandomItem(player);
+                    assignRandomItem(session, player);
                 }
             }
             // Restore stored jokers
-            if (storedJokers.containsKey(uuid)) {
-                jokerCounts.put(uuid, storedJokers.get(uuid));
-                storedJokers.remove(uuid);
-                updatePlayerJokers(player);
+            if (state.restoreJokers()) {
+                updatePlayerJokers(session, player);
             }
-            updateBossBar(player);
+            updateBossBar(session, player);
         } else {
-            BossBar bar = bossBars.get(player);
-            if (bar != null) bar.removePlayer(player);
-            removeItemDisplay(player);
+            BossBar bar = state.getBossBar();
+            if (bar != null) player.hideBossBar(bar);
+            removeItemDisplay(session, player);
             // Store jokers before removing
-            storedJokers.put(uuid, jokerCounts.getOrDefault(uuid, 0));
-            jokerCounts.put(uuid, 0);
-            updatePlayerJokers(player);
+            state.storeJokers();
+            updatePlayerJokers(session, player);
         }
     }
 
     // --- Persistenz ---
-    private void saveData() {
+    // Marks the state dirty, the next flush of saveTask writes it in the background
+    private void saveData(ChallengeSession session) {
+        session.getDataStore().markDirty();
+    }
+
+    private void loadData(ChallengeSession session) {
+        long start = System.nanoTime();
         try {
-            File dataFile = new File(getDataFolder(), "data.yml");
-            FileConfiguration data = new YamlConfiguration();
-            data.set("remainingSeconds", remainingSeconds);
-            
-            Map<String, Integer> scoreMap = new HashMap<>();
-            scores.forEach((uuid, pts) -> scoreMap.put(uuid.toString(), pts));
-            data.set("scores", scoreMap);
-            
-            Map<String, String> assignMap = new HashMap<>();
-            assignedItems.forEach((uuid, mat) -> assignMap.put(uuid.toString(), mat.name()));
-            data.set("assignedItems", assignMap);
-            
-            Map<String, Integer> jokerMap = new HashMap<>();
-            jokerCounts.forEach((uuid, count) -> jokerMap.put(uuid.toString(), count));
-            data.set("jokerCounts", jokerMap);
-            
-            data.set("defaultJokers", defaultJokers);
-            
-            data.save(dataFile);
-        } catch (IOException ex) {
-            getLogger().severe(messages.getString("save-data-error", "Could not save data.yml"));
+            DataStore dataStore = session.getDataStore();
+            File dataFile = dataStore.getFile();
+            long journalSequence = 0;
+            Long raceSeed = null;
+            if (dataFile.exists()) {
+                FileConfiguration data = YamlConfiguration.loadConfiguration(dataFile);
+                // Files from before the deadline timer only have whole seconds
+                session.setRemainingMillis(data.contains("remainingMillis") ? data.getLong("remainingMillis") : data.getLong("remainingSeconds", 0) * 1000);
+                session.setTimerSeconds(data.getLong("timerSeconds", 0));
+                session.setRoundId(data.getString("roundId"));
+                if (data.contains("raceSeed")) raceSeed = data.getLong("raceSeed");
+                journalSequence = data.getLong("journalSequence", 0);
+                loadSnapshot(session, data);
+            }
+
+            // Events after the last snapshot, so nothing is lost between two saves
+            int replayed = dataStore.replayJournal(journalSequence, new ChallengeJournal.Visitor() {
+                @Override
+                public void itemFound(UUID player, Material item, int score) {
+                    session.state(player).setScore(score);
+                }
+
+                @Override
+                public void itemAssigned(UUID player, Material item) {
+                    PlayerChallengeState state = session.state(player);
+                    state.setAssignedItem(item);
+                    state.getSeenItems().add(item);
+                }
+
+                @Override
+                public void jokerUsed(UUID player, int remainingJokers) {
+                    session.state(player).setJokers(remainingJokers);
+                }
+
+                @Override
+                public void timerRemaining(long millis) {
+                    session.setRemainingMillis(millis);
+                }
+            });
+            if (replayed > 0) {
+                getLogger().info("Replayed " + replayed + " events from " + session.getName() + " data.journal");
+            }
+
+            if (session.getRemainingSeconds() == 0) {
+                session.getPlayers().clear();
+                dataStore.delete();
+                return;
+            }
+            session.setTimerSet(true);
+            if (raceSeed != null) session.restoreRace(raceSeed);
+            session.getTargetIndex().rebuild(session.getPlayers().values());
+            session.getPlayers().values().forEach(state -> session.getLeaderboard().update(state.getUuid(), state.getScore()));
+        } finally {
+            loadTimer.recordSince(start);
         }
     }
 
-    private void loadData() {
-        File dataFile = new File(getDataFolder(), "data.yml");
-        if (!dataFile.exists()) return;
-        FileConfiguration data = YamlConfiguration.loadConfiguration(dataFile);
-        
-        remainingSeconds = data.getLong("remainingSeconds", 0);
-        if (remainingSeconds == 0) {
-            dataFile.delete();
-            return;
-        }
-        timerSet = true;
-        
+    private void loadSnapshot(ChallengeSession session, FileConfiguration data) {
         if (data.contains("scores")) {
             data.getConfigurationSection("scores").getValues(false).forEach((k, v) -> {
-                try { scores.put(UUID.fromString(k), (Integer)v); } catch(Exception e){}
+                try { session.state(UUID.fromString(k)).setScore((Integer)v); } catch(Exception e){}
             });
         }
         if (data.contains("assignedItems")) {
             data.getConfigurationSection("assignedItems").getValues(false).forEach((k, v) -> {
-                try { assignedItems.put(UUID.fromString(k), Material.valueOf((String)v)); } catch(Exception e){}
+                try { session.state(UUID.fromString(k)).setAssignedItem(Material.valueOf((String)v)); } catch(Exception e){}
             });
         }
+        if (data.contains("names")) {
+            data.getConfigurationSection("names").getValues(false).forEach((k, v) -> {
+                try { session.getLeaderboard().rememberName(UUID.fromString(k), (String)v); } catch(Exception e){}
+            });
+        }
+        if (data.contains("seenItems")) {
+            if (data.getInt("seenItemsMaterials") == SeenItems.materialCount()) {
+                data.getConfigurationSection("seenItems").getValues(false).forEach((k, v) -> {
+                    try { session.state(UUID.fromString(k)).getSeenItems().load((String) v); } catch (Exception e) { getLogger().warning("Failed to load seen items for " + k + ": " + e.getMessage()); }
+                });
+            } else {
+                getLogger().warning("The item list changed since " + session.getName() + " was saved, previous targets are forgotten");
+            }
+        }
         if (data.contains("jokerCounts")) {
             data.getConfigurationSection("jokerCounts").getValues(false).forEach((k, v) -> {
-                try { jokerCounts.put(UUID.fromString(k), (Integer)v); } catch(Exception e) { getLogger().warning("Failed to load joker count for " + k + ": " + e.getMessage()); }
+                try { session.state(UUID.fromString(k)).setJokers((Integer)v); } catch(Exception e) { getLogger().warning("Failed to load joker count for " + k + ": " + e.getMessage()); }
             });
         }
-        defaultJokers = data.getInt("defaultJokers", defaultJokers);
+        session.setDefaultJokers(data.getInt("defaultJokers", session.getDefaultJokers()));
     }
 
     private void sendHelp(CommandSender sender) {
-        sender.sendMessage(PREFIX + messages.getString("help-message", "§6§l=== FoliaChallenges Help ===\n§e/timer start §7- Start the challenge timer\n§e/timer stop §7- Stop the challenge timer\n§e/timer set <minutes> §7- Set the timer duration\n§e/challenges randomitembattle listitems §7- List assigned items\n§e/challenges randomitembattle listpoints §7- List player points\n§e/challenges randomitembattle blockitem <item> §7- Block an item\n§e/challenges randomitembattle settings §7- Open settings GUI\n§e/challenges reload §7- Reload config and messages\n§e/reset confirm §7- Reset the world (use with caution)\n§6§l========================"));
+        sender.sendMessage(messages.prefixed("help-message", "§6§l=== FoliaChallenges Help ===\n§e/timer start §7- Start the challenge timer\n§e/timer stop §7- Stop the challenge timer\n§e/timer set <minutes> §7- Set the timer duration\n§e/challenges randomitembattle listitems §7- List assigned items\n§e/challenges randomitembattle listpoints §7- List player points\n§e/challenges randomitembattle blockitem <item> §7- Block an item\n§e/challenges randomitembattle settings §7- Open settings GUI\n§e/challenges reload §7- Reload config and messages\n§e/challenges stats §7- Show performance metrics\n§e/challenges history [player] §7- Show past challenges or a player's lifetime stats\n§e/reset confirm §7- Reset the world (use with caution)\n§6§l========================"));
     }
 
+    // Shows and edits the settings of the session the player is in
     private void openSettingsGUI(Player player) {
+        ChallengeSession session = session(player);
+        ChallengeSettings settings = session.getSettings();
         Inventory gui = Bukkit.createInventory(null, 9, settingsGUITitle);
 
         // Item 1: Joker
-        String jokerName = messages.getString("settings-joker-name", "§6Amount of jokers");
-        int currentJokers = defaultJokers;
-        String jokerLore = messages.getString("settings-joker-lore", "§7The §6global amount§7 of §6jokers§7 players can use");
-        String currentText = messages.getString("settings-joker-current", "§eGlobal: %count%").replace("%count%", String.valueOf(currentJokers));
+        String jokerName = messages.text("settings-joker-name", "§6Amount of jokers");
+        int currentJokers = session.getDefaultJokers();
+        String jokerLore = messages.text("settings-joker-lore", "§7The §6global amount§7 of §6jokers§7 players can use");
+        String currentText = messages.text("settings-joker-current", "§eGlobal: %count%", "count", currentJokers);
         ItemStack joker = new ItemStack(Material.BARRIER);
         ItemMeta jokerMeta = joker.getItemMeta();
         jokerMeta.setDisplayName(jokerName);
@@ -981,9 +1539,9 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         gui.setItem(2, joker);
 
         // Item 2: Doppelte Ziele
-        String duplicateName = messages.getString("settings-duplicate-name", "§cDuplicate Targets");
-        String duplicateLore = messages.getString("settings-duplicate-lore", "§7Targets can occour §cmultiple times§7 in a session");
-        String duplicateStatus = allowDuplicateTargets ? messages.getString("settings-enabled", "§aEnabled") : messages.getString("settings-disabled", "§cDisabled");
+        String duplicateName = messages.text("settings-duplicate-name", "§cDuplicate Targets");
+        String duplicateLore = messages.text("settings-duplicate-lore", "§7Targets can occour §cmultiple times§7 in a session");
+        String duplicateStatus = settings.isAllowDuplicateTargets() ? messages.text("settings-enabled", "§aEnabled") : messages.text("settings-disabled", "§cDisabled");
         ItemStack duplicate = new ItemStack(Material.PAPER);
         ItemMeta duplicateMeta = duplicate.getItemMeta();
         duplicateMeta.setDisplayName(duplicateName);
@@ -992,9 +1550,9 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         gui.setItem(4, duplicate);
 
         // Item 3: Joker gibt Item
-        String jokerGivesName = messages.getString("settings-joker-gives-item-name", "§bGive item on joker");
-        String jokerGivesLore = messages.getString("settings-joker-gives-item-lore", "§7If a player uses a §bjoker§7, they also §breceive§7 the item");
-        String jokerGivesStatus = giveItemOnJoker ? messages.getString("settings-enabled", "§aEnabled") : messages.getString("settings-disabled", "§cDisabled");
+        String jokerGivesName = messages.text("settings-joker-gives-item-name", "§bGive item on joker");
+        String jokerGivesLore = messages.text("settings-joker-gives-item-lore", "§7If a player uses a §bjoker§7, they also §breceive§7 the item");
+        String jokerGivesStatus = settings.isGiveItemOnJoker() ? messages.text("settings-enabled", "§aEnabled") : messages.text("settings-disabled", "§cDisabled");
         ItemStack jokerGives = new ItemStack(Material.CHEST);
         ItemMeta jokerGivesMeta = jokerGives.getItemMeta();
         jokerGivesMeta.setDisplayName(jokerGivesName);
@@ -1005,117 +1563,115 @@ public class FoliaChallengePlugin extends JavaPlugin implements Listener, TabCom
         player.openInventory(gui);
     }
 
-    private void updatePlayerJokers(Player player) {
-        UUID uuid = player.getUniqueId();
-        int count = jokerCounts.getOrDefault(uuid, 0);
-        // Entferne alle Barrier aus Inventar
-        for (ItemStack item : player.getInventory().getContents()) {
-            if (item != null && item.getType() == Material.BARRIER) {
-                player.getInventory().removeItem(item);
-            }
-        }
-        // Füge count Barrier hinzu
-        if (count > 0) {
-            ItemStack barrier = new ItemStack(Material.BARRIER, count);
-            ItemMeta meta = barrier.getItemMeta();
-            String jokerItemName = messages.getString("joker-item-name", "§6Joker");
-            String jokerItemLore = messages.getString("joker-item-lore", "§7This is a joker. You cannot use or drop it.");
-            meta.setDisplayName(jokerItemName);
-            meta.setLore(Arrays.asList(jokerItemLore));
-            barrier.setItemMeta(meta);
-            player.getInventory().addItem(barrier);
-        }
+    // Applies the difference to the joker stacks in the inventory, must run on the player's thread
+    private void updatePlayerJokers(ChallengeSession session, Player player) {
+        PlayerChallengeState state = session.getState(player.getUniqueId());
+        int count = state != null ? state.getJokers() : 0;
+        jokerItems.sync(player, count, messages.text("joker-item-name", "§6Joker"),
+            messages.text("joker-item-lore", "§7This is a joker. You cannot use or drop it."));
     }
 
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
-        if (event.getView().getTitle().equals(settingsGUITitle)) {
-            event.setCancelled(true);
-            if (event.getWhoClicked() instanceof Player) {
-                Player player = (Player) event.getWhoClicked();
-                if (event.getSlot() == 2) { // Joker slot
-                    if (event.isLeftClick()) {
-                        int oldDefault = defaultJokers;
-                        defaultJokers++;
-                        int difference = defaultJokers - oldDefault;
-                        for (Player p : Bukkit.getOnlinePlayers()) {
-                            int currentCount = jokerCounts.getOrDefault(p.getUniqueId(), 0);
-                            jokerCounts.put(p.getUniqueId(), currentCount + difference);
-                            updatePlayerJokers(p);
-                        }
-                    } else if (event.isRightClick()) {
-                        int oldDefault = defaultJokers;
-                        int difference = oldDefault - (oldDefault - 1);
-                        boolean canReduce = jokerCounts.values().stream().allMatch(count -> count >= difference);
-                        if (canReduce && defaultJokers > 0) {
-                            defaultJokers--;
-                            for (Player p : Bukkit.getOnlinePlayers()) {
-                                int currentCount = jokerCounts.getOrDefault(p.getUniqueId(), 0);
-                                jokerCounts.put(p.getUniqueId(), currentCount - difference);
-                                updatePlayerJokers(p);
+        long start = System.nanoTime();
+        try {
+            if (event.getView().getTitle().equals(settingsGUITitle)) {
+                event.setCancelled(true);
+                if (event.getWhoClicked() instanceof Player) {
+                    Player player = (Player) event.getWhoClicked();
+                    ChallengeSession session = session(player);
+                    if (event.getSlot() == 2) { // Joker slot
+                        int defaultJokers = session.getDefaultJokers();
+                        if (event.isLeftClick()) {
+                            session.setDefaultJokers(defaultJokers + 1);
+                            // The counts are atomic, the inventories are changed on each player's own thread
+                            for (Player p : onlinePlayers(session)) {
+                                session.state(p.getUniqueId()).addJokers(1);
+                                hud.run(p, () -> updatePlayerJokers(session, p));
+                            }
+                        } else if (event.isRightClick()) {
+                            int difference = 1;
+                            boolean canReduce = session.getPlayers().values().stream().allMatch(state -> state.getJokers() >= difference);
+                            if (canReduce && defaultJokers > 0) {
+                                session.setDefaultJokers(defaultJokers - 1);
+                                for (Player p : onlinePlayers(session)) {
+                                    session.state(p.getUniqueId()).addJokers(-difference);
+                                    hud.run(p, () -> updatePlayerJokers(session, p));
+                                }
+                            } else if (defaultJokers > 0) {
+                                player.sendMessage(messages.prefixed("joker-cannot-reduce", "§cCannot reduce jokers: not all players have enough jokers!"));
                             }
-                        } else if (defaultJokers > 0) {
-                            player.sendMessage(PREFIX + messages.getString("joker-cannot-reduce", "§cCannot reduce jokers: not all players have enough jokers!"));
                         }
+                        saveData(session);
+                        player.closeInventory();
+                        openSettingsGUI(player);
+                    } else if (event.getSlot() == 4) { // Duplicate targets
+                        config.set(session.configPath("allow-duplicate-targets"), !session.getSettings().isAllowDuplicateTargets());
+                        saveConfig();
+                        applySettings(session);
+                        player.closeInventory();
+                        openSettingsGUI(player);
+                    } else if (event.getSlot() == 6) { // Give item on joker
+                        config.set(session.configPath("give-item-on-joker"), !session.getSettings().isGiveItemOnJoker());
+                        saveConfig();
+                        applySettings(session);
+                        player.closeInventory();
+                        openSettingsGUI(player);
                     }
-                    player.closeInventory();
-                    openSettingsGUI(player);
-                } else if (event.getSlot() == 4) { // Duplicate targets
-                    allowDuplicateTargets = !allowDuplicateTargets;
-                    config.set("allow-duplicate-targets", allowDuplicateTargets);
-                    saveConfig();
-                    player.closeInventory();
-                    openSettingsGUI(player);
-                } else if (event.getSlot() == 6) { // Give item on joker
-                    giveItemOnJoker = !giveItemOnJoker;
-                    config.set("give-item-on-joker", giveItemOnJoker);
-                    saveConfig();
-                    player.closeInventory();
-                    openSettingsGUI(player);
                 }
             }
+        } finally {
+            inventoryClickTimer.recordSince(start);
         }
     }
 
     @EventHandler
     public void onPlayerDropItem(PlayerDropItemEvent event) {
-        if (event.getItemDrop().getItemStack().getType() == Material.BARRIER) {
+        if (jokerItems.isJoker(event.getItemDrop().getItemStack())) {
             event.setCancelled(true);
         }
     }
 
     @EventHandler
     public void onInventoryClickForJoker(InventoryClickEvent event) {
-        if (event.getCurrentItem() != null && event.getCurrentItem().getType() == Material.BARRIER) {
+        if (jokerItems.isJoker(event.getCurrentItem()) || jokerItems.isJoker(event.getCursor())) {
             event.setCancelled(true);
         }
     }
 
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
-        Player player = event.getPlayer();
-        ItemStack item = event.getItem();
-        if (item != null && item.getType() == Material.BARRIER && (event.getAction() == Action.RIGHT_CLICK_AIR || event.getAction() == Action.RIGHT_CLICK_BLOCK)) {
-            if (timerRunning && assignedItems.containsKey(player.getUniqueId())) {
-                int current = jokerCounts.getOrDefault(player.getUniqueId(), 0);
-                if (current > 0) {
-                    jokerCounts.put(player.getUniqueId(), current - 1);
-                    updatePlayerJokers(player);
-                    player.sendMessage(PREFIX + messages.getString("joker-used", "§aJoker used! Skipped to a new item."));
-                    if (giveItemOnJoker) {
-                        Material assignedItem = assignedItems.get(player.getUniqueId());
-                        if (assignedItem != null) {
-                            player.getInventory().addItem(new ItemStack(assignedItem));
-                            player.sendMessage(PREFIX + messages.getString("item-received", "§aYou received the item: §e%item%").replace("%item%", assignedItem.name()));
+        long start = System.nanoTime();
+        try {
+            Player player = event.getPlayer();
+            ItemStack item = event.getItem();
+            if (jokerItems.isJoker(item) && (event.getAction() == Action.RIGHT_CLICK_AIR || event.getAction() == Action.RIGHT_CLICK_BLOCK)) {
+                ChallengeSession session = session(player);
+                PlayerChallengeState state = session.getState(player.getUniqueId());
+                if (session.isTimerRunning() && state != null && state.getAssignedItem() != null) {
+                    int remaining = state.useJoker();
+                    if (remaining >= 0) {
+                        session.getDataStore().jokerUsed(player.getUniqueId(), remaining);
+                        jokersUsed.increment();
+                        updatePlayerJokers(session, player);
+                        player.sendMessage(messages.prefixed("joker-used", "§aJoker used! Skipped to a new item."));
+                        if (session.getSettings().isGiveItemOnJoker()) {
+                            Material assignedItem = state.getAssignedItem();
+                            if (assignedItem != null) {
+                                player.getInventory().addItem(new ItemStack(assignedItem));
+                                player.sendMessage(messages.prefixed("item-received", "§aYou received the item: §e%item%", "item", itemNames.component(assignedItem, player.locale())));
+                            }
                         }
+                        assignRandomItem(session, player);
+                        player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
+                        event.setCancelled(true);
                     }
-                    assignRandomItem(player);
-                    player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
-                    event.setCancelled(true);
+                } else if (!session.isTimerRunning()) {
+                    player.sendMessage(messages.prefixed("joker-timer-not-running", "§cYou can only use jokers when the challenge is running!"));
                 }
-            } else if (!timerRunning) {
-                player.sendMessage(PREFIX + messages.getString("joker-timer-not-running", "§cYou can only use jokers when the challenge is running!"));
             }
+        } finally {
+            interactTimer.recordSince(start);
         }
     }
 }
@@ -0,0 +1,32 @@
+package foliachallenges;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+
+/**
+ * The freeze rules of a paused session, kept apart from the event handlers so their per-event cost can be benchmarked.
+ * Only plain values go in, the handlers resolve the session and its {@link ChallengeSettings} first.
+ */
+public final class FreezeCheck {
+
+    private FreezeCheck() {
+    }
+
+    /**
+     * Frozen = the session is paused and the player is in survival mode.
+     */
+    public static boolean isFrozen(boolean timerRunning, GameMode mode) {
+        return !timerRunning && mode == GameMode.SURVIVAL;
+    }
+
+    /**
+     * Cheapest checks first: while the timer runs or movement is allowed, the locations are not compared.
+     * Looking around and moving up or down stay possible while frozen.
+     * @return true if the move has to be cancelled
+     */
+    public static boolean cancelsMove(boolean timerRunning, boolean allowMovement, GameMode mode, Location from, Location to) {
+        if (timerRunning || allowMovement) return false;
+        if (!isFrozen(false, mode)) return false;
+        return from.getX() != to.getX() || from.getZ() != to.getZ();
+    }
+}
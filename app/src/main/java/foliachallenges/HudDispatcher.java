@@ -0,0 +1,105 @@
+package foliachallenges;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Sends HUD updates through each player's EntityScheduler, so the work runs on the region thread owning the player.
+ * Every player has a {@link HudState} with what was last sent; the periodic task renders the HUD of the player's
+ * session into it and only elements that changed (or the action bar keep-alive) cause packets.
+ */
+public class HudDispatcher {
+
+    private static final long HUD_PERIOD = 10;
+    // The client starts fading the action bar out after about three seconds
+    private static final long ACTION_BAR_KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final Plugin plugin;
+    private final BiConsumer<Player, HudState> renderer;
+    private final LatencyHistogram renderTimer;
+    private final LongAdder actionBarsSent;
+    private final LongAdder actionBarsSkipped;
+    private final Map<UUID, ScheduledTask> hudTasks = new ConcurrentHashMap<>();
+    private final Map<UUID, HudState> states = new ConcurrentHashMap<>();
+
+    /**
+     * @param renderer renders the current HUD of a player into its state, called on the player's thread
+     */
+    public HudDispatcher(Plugin plugin, BiConsumer<Player, HudState> renderer, Metrics metrics) {
+        this.plugin = plugin;
+        this.renderer = renderer;
+        this.renderTimer = metrics.timer("task_hud");
+        this.actionBarsSent = metrics.counter("hud_action_bars_sent");
+        this.actionBarsSkipped = metrics.counter("hud_action_bars_skipped");
+    }
+
+    /**
+     * Starts the HUD task on the player's own scheduler.
+     */
+    public void attach(Player player) {
+        UUID uuid = player.getUniqueId();
+        HudState state = state(player);
+        state.invalidate();
+        ScheduledTask task = player.getScheduler().runAtFixedRate(plugin, t -> {
+            long start = System.nanoTime();
+            renderer.accept(player, state);
+            renderTimer.recordSince(start);
+        }, () -> hudTasks.remove(uuid), 1, HUD_PERIOD);
+        if (task != null) {
+            ScheduledTask old = hudTasks.put(uuid, task);
+            if (old != null) old.cancel();
+        }
+    }
+
+    public void detach(Player player) {
+        ScheduledTask task = hudTasks.remove(player.getUniqueId());
+        if (task != null) task.cancel();
+        states.remove(player.getUniqueId());
+    }
+
+    public HudState state(Player player) {
+        // Not kept for players that already left, detach has removed their state
+        if (!player.isOnline()) return new HudState();
+        return states.computeIfAbsent(player.getUniqueId(), uuid -> new HudState());
+    }
+
+    /**
+     * Sends the action bar unless the player already sees the same text.
+     */
+    public void actionBar(Player player, HudState state, Component text) {
+        if (state.actionBar(player, text, System.nanoTime(), ACTION_BAR_KEEP_ALIVE_NANOS)) {
+            actionBarsSent.increment();
+        } else {
+            actionBarsSkipped.increment();
+        }
+    }
+
+    /**
+     * Resends every element on the next update, e.g. after messages were reloaded.
+     */
+    public void invalidateAll() {
+        states.values().forEach(HudState::invalidate);
+    }
+
+    /**
+     * Runs a per-player update on the thread owning the player. Dropped if the player is gone.
+     */
+    public void run(Player player, Runnable update) {
+        player.getScheduler().run(plugin, t -> update.run(), null);
+    }
+
+    public void shutdown() {
+        hudTasks.values().forEach(ScheduledTask::cancel);
+        hudTasks.clear();
+        states.clear();
+    }
+}
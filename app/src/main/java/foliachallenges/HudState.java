@@ -0,0 +1,84 @@
+package foliachallenges;
+
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+/**
+ * What was last sent to one player's HUD. Every element is only sent again when its content changed,
+ * except the action bar, which the client fades out after a few seconds and therefore gets a keep-alive.
+ * Usually touched from the player's own thread; the methods are synchronized for the few updates that are not.
+ */
+public class HudState {
+
+    // Progress changes smaller than this are not visible on the bar
+    private static final float PROGRESS_STEP = 0.001f;
+
+    private Component actionBar;
+    private long actionBarSentAt;
+
+    private Component playerListFooter;
+
+    private BossBar bossBar;
+    private Component bossBarTitle;
+    private float bossBarProgress = Float.NaN;
+
+    /**
+     * Sends the action bar if it differs from the last one or the last one is about to fade out.
+     * @return true if a packet was sent
+     */
+    public synchronized boolean actionBar(Player player, Component text, long nowNanos, long keepAliveNanos) {
+        if (text.equals(actionBar) && nowNanos - actionBarSentAt < keepAliveNanos) return false;
+        player.sendActionBar(text);
+        actionBar = text;
+        actionBarSentAt = nowNanos;
+        return true;
+    }
+
+    /**
+     * Sends the player list footer if it changed. Null leaves the footer to others, it is only cleared once if this
+     * state had sent one.
+     * @return true if a packet was sent
+     */
+    public synchronized boolean playerListFooter(Player player, Component footer) {
+        if (footer == null ? playerListFooter == null : footer.equals(playerListFooter)) return false;
+        player.sendPlayerListFooter(footer != null ? footer : Component.empty());
+        playerListFooter = footer;
+        return true;
+    }
+
+    public synchronized boolean bossBarTitle(BossBar bar, Component title) {
+        track(bar);
+        if (title.equals(bossBarTitle)) return false;
+        bar.name(title);
+        bossBarTitle = title;
+        return true;
+    }
+
+    public synchronized boolean bossBarProgress(BossBar bar, float progress) {
+        track(bar);
+        if (Math.abs(progress - bossBarProgress) < PROGRESS_STEP) return false;
+        bar.progress(progress);
+        bossBarProgress = progress;
+        return true;
+    }
+
+    // A new bar starts without any known state
+    private void track(BossBar bar) {
+        if (bar == bossBar) return;
+        bossBar = bar;
+        bossBarTitle = null;
+        bossBarProgress = Float.NaN;
+    }
+
+    /**
+     * Forgets everything that was sent, so the next update resends all elements (e.g. after a reload).
+     */
+    public synchronized void invalidate() {
+        actionBar = null;
+        playerListFooter = null;
+        bossBar = null;
+        bossBarTitle = null;
+        bossBarProgress = Float.NaN;
+    }
+}
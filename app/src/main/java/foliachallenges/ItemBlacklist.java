@@ -1,64 +1,111 @@
 package foliachallenges;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Material;
-import java.util.Arrays;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
 
+/**
+ * Items that can never be obtained in survival and are therefore never assigned.
+ * <p>
+ * The rules (exact names, prefixes, suffixes and tags) come from obtainability-rules.yml and are compiled
+ * into an EnumSet once, so {@link #isObtainable} is a single bit test. The bundled rules are compiled
+ * at class load, the editable copy in the data folder replaces them on enable and reload.
+ */
 public class ItemBlacklist {
-    public static final List<Material> HARDCODED_BLACKLIST = Arrays.asList(
-        Material.AIR,
-        Material.VOID_AIR,
-        Material.CAVE_AIR,
-        Material.BARRIER,
-        Material.STRUCTURE_VOID,
-        Material.BEDROCK,
-        Material.COMMAND_BLOCK,
-        Material.CHAIN_COMMAND_BLOCK,
-        Material.REPEATING_COMMAND_BLOCK,
-        Material.COMMAND_BLOCK_MINECART,
-        Material.STRUCTURE_BLOCK,
-        Material.JIGSAW,
-        Material.LIGHT,
-        Material.DEBUG_STICK,
-        Material.KNOWLEDGE_BOOK,
-        Material.REINFORCED_DEEPSLATE,
-        Material.END_PORTAL_FRAME,
-        Material.END_PORTAL,
-        Material.NETHER_PORTAL,
-        Material.END_GATEWAY,
-        Material.SPAWNER,
-        Material.BUDDING_AMETHYST,
-        Material.FROGSPAWN,
-        Material.FARMLAND,
-        Material.DIRT_PATH,
-        Material.INFESTED_STONE,
-        Material.WATER,
-        Material.LAVA,
-        Material.BUBBLE_COLUMN,
-        Material.FIRE,
-        Material.SOUL_FIRE
-    );
-    
+
+    public static final String RULES_FILE = "obtainability-rules.yml";
+
+    // Never modified after it is published, a reload swaps in a new set
+    private static volatile Set<Material> unobtainable = compile(loadBundledRules(), null);
+
     public static boolean isObtainable(Material material) {
-        if (HARDCODED_BLACKLIST.contains(material)) return false;
-        String name = material.name();
-        if (name.endsWith("_SPAWN_EGG")) return false;
-        if (name.startsWith("LEGACY_")) return false;
-        switch (name) {
-            case "LARGE_FERN":
-            case "TALL_GRASS":
-            case "TALL_SEAGRASS":
-            case "CHORUS_PLANT":
-            case "PETRIFIED_OAK_SLAB":
-            case "PLAYER_HEAD":
-            case "GLOBE_BANNER_PATTERN":
-            case "VAULT":
-            case "AMETHYST_CLUSTER":
-            case "POWDER_SNOW":
-            case "BUNDLE":
-            case "TEST":
-                return false;
-        }
+        return !unobtainable.contains(material);
+    }
+
+    /**
+     * @return number of materials the current rules exclude
+     */
+    public static int getUnobtainableCount() {
+        return unobtainable.size();
+    }
+
+    /**
+     * Compiles the rules file and swaps it in. Keeps the current rules if the file does not exist.
+     * @return true if the set of unobtainable materials changed
+     */
+    public static boolean load(File rulesFile, Logger logger) {
+        if (!rulesFile.exists()) return false;
+        Set<Material> compiled = compile(YamlConfiguration.loadConfiguration(rulesFile), logger);
+        if (compiled.equals(unobtainable)) return false;
+        unobtainable = compiled;
         return true;
     }
-} // # Items that are impossible to obtain for the challenge are added here from time to time. Please continue to contribute to this list.
\ No newline at end of file
+
+    private static ConfigurationSection loadBundledRules() {
+        try (InputStream in = ItemBlacklist.class.getClassLoader().getResourceAsStream(RULES_FILE)) {
+            if (in == null) return new YamlConfiguration();
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return YamlConfiguration.loadConfiguration(reader);
+            }
+        } catch (Exception e) {
+            return new YamlConfiguration();
+        }
+    }
+
+    static Set<Material> compile(ConfigurationSection rules, Logger logger) {
+        Set<Material> result = EnumSet.noneOf(Material.class);
+        for (String name : rules.getStringList("exact")) {
+            Material material = Material.getMaterial(name.toUpperCase());
+            if (material != null) {
+                result.add(material);
+            } else if (logger != null) {
+                logger.warning("Unknown material in " + RULES_FILE + ": " + name);
+            }
+        }
+
+        List<String> prefixes = rules.getStringList("prefixes");
+        List<String> suffixes = rules.getStringList("suffixes");
+        if (!prefixes.isEmpty() || !suffixes.isEmpty()) {
+            for (Material material : Material.values()) {
+                String name = material.name();
+                for (String prefix : prefixes) {
+                    if (name.startsWith(prefix.toUpperCase())) result.add(material);
+                }
+                for (String suffix : suffixes) {
+                    if (name.endsWith(suffix.toUpperCase())) result.add(material);
+                }
+            }
+        }
+
+        addTags(result, rules.getStringList("block-tags"), Tag.REGISTRY_BLOCKS, logger);
+        addTags(result, rules.getStringList("item-tags"), Tag.REGISTRY_ITEMS, logger);
+        return result;
+    }
+
+    private static void addTags(Set<Material> result, List<String> tags, String registry, Logger logger) {
+        // Tags only exist on a running server
+        if (tags.isEmpty() || Bukkit.getServer() == null) return;
+        for (String key : tags) {
+            NamespacedKey namespacedKey = NamespacedKey.fromString(key.toLowerCase());
+            Tag<Material> tag = namespacedKey != null ? Bukkit.getTag(registry, namespacedKey, Material.class) : null;
+            if (tag != null) {
+                result.addAll(tag.getValues());
+            } else if (logger != null) {
+                logger.warning("Unknown tag in " + RULES_FILE + ": " + key);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Difficulty tier of every item, from the average time players needed to find it in past challenges
+ * (see {@link ChallengeStorage#searchTimes()}) and the manual overrides in difficulty.yml.
+ * Items with too few recorded finds and no override get the default tier.
+ * <p>
+ * The tiers are replaced as a whole when new search times arrive, readers never see a half updated table.
+ */
+public class ItemDifficulty {
+
+    public static final String FILE = "difficulty.yml";
+
+    public enum Tier {
+        EASY, MEDIUM, HARD, EXTREME;
+
+        /**
+         * @return the tier with this name (case-insensitive), or null
+         */
+        public static Tier parse(String name) {
+            if (name == null) return null;
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Tier[] TIERS = Tier.values();
+    // Easy and medium items are drawn three times as often as extreme ones, unless difficulty.yml says otherwise
+    private static final double[] DEFAULT_WEIGHTS = {3, 3, 2, 1};
+
+    // Upper bound of the average search time of EASY, MEDIUM and HARD; everything above is EXTREME
+    private final long[] limitsMillis;
+    private final double[] tierWeights;
+    private final Tier defaultTier;
+    private final int minFinds;
+    private final Map<Material, Tier> overrides;
+
+    // Tier by material ordinal
+    private volatile Tier[] tiers;
+
+    private ItemDifficulty(long[] limitsMillis, double[] tierWeights, Tier defaultTier, int minFinds, Map<Material, Tier> overrides) {
+        this.limitsMillis = limitsMillis;
+        this.tierWeights = tierWeights;
+        this.defaultTier = defaultTier;
+        this.minFinds = minFinds;
+        this.overrides = overrides;
+        update(Map.of());
+    }
+
+    public static ItemDifficulty load(File file, Logger logger) {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(file);
+        long[] limits = {
+            TimeUnit.SECONDS.toMillis(config.getLong("tiers.easy", 60)),
+            TimeUnit.SECONDS.toMillis(config.getLong("tiers.medium", 180)),
+            TimeUnit.SECONDS.toMillis(config.getLong("tiers.hard", 600))
+        };
+        double[] weights = new double[TIERS.length];
+        for (Tier tier : TIERS) {
+            weights[tier.ordinal()] = Math.max(0, config.getDouble("weights." + tier.name().toLowerCase(Locale.ROOT), DEFAULT_WEIGHTS[tier.ordinal()]));
+        }
+        Tier defaultTier = Tier.parse(config.getString("default-tier", "medium"));
+        if (defaultTier == null) {
+            logger.warning("Invalid default-tier in " + FILE + ", using medium");
+            defaultTier = Tier.MEDIUM;
+        }
+
+        Map<Material, Tier> overrides = new EnumMap<>(Material.class);
+        ConfigurationSection section = config.getConfigurationSection("overrides");
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                Material material = Material.matchMaterial(key);
+                // Either a tier name or the seconds the item usually takes
+                Tier tier = section.isInt(key) ? tierOf(limits, TimeUnit.SECONDS.toMillis(section.getInt(key))) : Tier.parse(section.getString(key));
+                if (material == null || tier == null) {
+                    logger.warning("Invalid difficulty override in " + FILE + ": " + key);
+                    continue;
+                }
+                overrides.put(material, tier);
+            }
+        }
+        return new ItemDifficulty(limits, weights, defaultTier, Math.max(1, config.getInt("min-finds", 3)), overrides);
+    }
+
+    /**
+     * Recomputes the tiers from the recorded search times. Overrides always win.
+     */
+    public void update(Map<Material, ChallengeStorage.SearchTime> searchTimes) {
+        Tier[] computed = new Tier[MATERIALS.length];
+        for (Material material : MATERIALS) {
+            Tier tier = overrides.get(material);
+            if (tier == null) {
+                ChallengeStorage.SearchTime time = searchTimes.get(material);
+                tier = time != null && time.getFinds() >= minFinds ? tierOf(limitsMillis, time.getAverageMillis()) : defaultTier;
+            }
+            computed[material.ordinal()] = tier;
+        }
+        tiers = computed;
+    }
+
+    public Tier tier(Material material) {
+        return tiers[material.ordinal()];
+    }
+
+    /**
+     * @return weight of every material by ordinal for {@link ItemPool#setWeights}; items outside the selected tiers get 0
+     */
+    public double[] weights(Set<Tier> selected) {
+        Tier[] current = tiers;
+        double[] weights = new double[current.length];
+        for (int i = 0; i < current.length; i++) {
+            Tier tier = current[i];
+            if (selected.contains(tier)) weights[i] = tierWeights[tier.ordinal()];
+        }
+        return weights;
+    }
+
+    /**
+     * @return the tiers named in the list, all tiers if the list is empty or names none
+     */
+    public static Set<Tier> parseTiers(Collection<String> names) {
+        Set<Tier> tiers = EnumSet.noneOf(Tier.class);
+        for (String name : names) {
+            Tier tier = Tier.parse(name);
+            if (tier != null) tiers.add(tier);
+        }
+        return tiers.isEmpty() ? EnumSet.allOf(Tier.class) : tiers;
+    }
+
+    private static Tier tierOf(long[] limits, long millis) {
+        for (int i = 0; i < limits.length; i++) {
+            if (millis <= limits[i]) return TIERS[i];
+        }
+        return Tier.EXTREME;
+    }
+}
@@ -0,0 +1,61 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Sorted item keys ({@code diamond_sword}) for tab completion. All keys with a prefix form one contiguous range
+ * of the array, found with two binary searches, so a suggestion request costs O(log n + matches) with no
+ * lowercasing or filtering of every material per keystroke. Built once, immutable afterwards.
+ */
+public final class ItemKeyIndex {
+
+    private static final String NAMESPACE = "minecraft:";
+
+    private final String[] keys;
+
+    public ItemKeyIndex(Material[] items) {
+        keys = new String[items.length];
+        for (int i = 0; i < items.length; i++) keys[i] = items[i].name().toLowerCase(Locale.ROOT);
+        Arrays.sort(keys);
+    }
+
+    /**
+     * Passes every key starting with the (case-insensitive) prefix to the consumer, in alphabetical order.
+     * A {@code minecraft:} namespace in the prefix is kept in the suggestions.
+     */
+    public void suggest(String prefix, Consumer<String> consumer) {
+        String input = prefix.toLowerCase(Locale.ROOT);
+        String namespace = "";
+        if (input.startsWith(NAMESPACE)) {
+            namespace = NAMESPACE;
+            input = input.substring(NAMESPACE.length());
+        }
+        int from = lowerBound(input);
+        // Keys are [a-z0-9_], so every key with the prefix sorts before the prefix followed by the highest char
+        int to = lowerBound(input + '\uffff');
+        for (int i = from; i < to; i++) consumer.accept(namespace + keys[i]);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // First index whose key is not smaller than the value
+    private int lowerBound(String value) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
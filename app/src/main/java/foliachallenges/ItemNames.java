@@ -0,0 +1,122 @@
+package foliachallenges;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Display names of all items, built once on enable and reload.
+ * <p>
+ * In translatable mode players get a translatable component and every client shows the name in its own language,
+ * the server does no work per locale. Plain text (logs, webhooks, and players if translation is disabled) comes from
+ * pre-rendered tables: one per Minecraft language file in the {@code lang} folder (e.g. {@code lang/de_de.json} from the
+ * client jar), otherwise the English name derived from the material.
+ */
+public final class ItemNames {
+
+    public static final String LANG_FOLDER = "lang";
+
+    private final boolean translatable;
+    private final String defaultLocale;
+    private final Map<Material, Component> components = new EnumMap<>(Material.class);
+    private final Map<Material, String> fallback = new EnumMap<>(Material.class);
+    // Locale tag (e.g. "de_de") -> pre-rendered names, only filled for languages with a file
+    private final Map<String, Map<Material, String>> plain;
+
+    private ItemNames(boolean translatable, String defaultLocale, Map<String, Map<Material, String>> plain) {
+        this.translatable = translatable;
+        this.defaultLocale = defaultLocale;
+        this.plain = plain;
+        for (Material material : Material.values()) {
+            if (!material.isItem()) continue;
+            String name = TextFormat.formatItemName(material.name());
+            fallback.put(material, name);
+            components.put(material, translatable ? Component.translatable(material) : Component.text(plain(material, defaultLocale)));
+        }
+    }
+
+    /**
+     * @param translatable whether players get translatable components or plain text
+     * @param defaultLocale locale for plain text, e.g. {@code en_us}
+     */
+    public static ItemNames load(File dataFolder, boolean translatable, String defaultLocale, Logger logger) {
+        Map<String, Map<Material, String>> plain = new HashMap<>();
+        File[] files = new File(dataFolder, LANG_FOLDER).listFiles((dir, name) -> name.endsWith(".json"));
+        if (files != null) {
+            for (File file : files) {
+                String locale = file.getName().substring(0, file.getName().length() - 5).toLowerCase(Locale.ROOT);
+                try {
+                    plain.put(locale, loadLanguage(file));
+                } catch (IOException | RuntimeException e) {
+                    logger.log(Level.WARNING, "Could not load item names from " + file.getName(), e);
+                }
+            }
+        }
+        return new ItemNames(translatable, defaultLocale.toLowerCase(Locale.ROOT), Collections.unmodifiableMap(plain));
+    }
+
+    private static Map<Material, String> loadLanguage(File file) throws IOException {
+        JsonObject json;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            json = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+        Map<Material, String> names = new EnumMap<>(Material.class);
+        for (Material material : Material.values()) {
+            if (!material.isItem() || material.isLegacy()) continue;
+            // Blocks use block.minecraft.*, the remaining items item.minecraft.*
+            JsonElement name = json.get(material.translationKey());
+            if (name != null) names.put(material, name.getAsString());
+        }
+        return names;
+    }
+
+    /**
+     * Name shown to players, translated by the client in translatable mode.
+     */
+    public Component component(Material material) {
+        Component component = components.get(material);
+        return component != null ? component : Component.text(material.name());
+    }
+
+    /**
+     * Name shown to a single player, plain text is rendered in the player's language if a file for it exists.
+     */
+    public Component component(Material material, Locale locale) {
+        if (translatable || plain.isEmpty()) return component(material);
+        return Component.text(plain(material, localeTag(locale)));
+    }
+
+    /**
+     * Plain text name in the configured default language.
+     */
+    public String plain(Material material) {
+        return plain(material, defaultLocale);
+    }
+
+    public String plain(Material material, String locale) {
+        Map<Material, String> names = plain.get(locale);
+        String name = names != null ? names.get(material) : null;
+        if (name != null) return name;
+        name = fallback.get(material);
+        return name != null ? name : material.name();
+    }
+
+    private static String localeTag(Locale locale) {
+        return locale.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,301 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of materials that can be assigned as targets.
+ * The pool is scanned once from Material.values() and afterwards only changed
+ * incrementally when the configurable blacklist changes. Readers always see an
+ * immutable snapshot, so sampling needs no locks and runs in O(1).
+ * <p>
+ * With weights set, items are drawn through an {@link AliasTable} instead of uniformly. The table is rebuilt on the
+ * background executor whenever the pool or the weights change; until it is ready, the previous table is used and
+ * items that left the pool in the meantime are skipped, so a blocked item is never assigned.
+ */
+public class ItemPool {
+
+    private static final Material[] MATERIALS = Material.values();
+
+    // Draws of an outdated table that hit removed items are repeated at most this often before falling back to uniform
+    private static final int STALE_RETRIES = 8;
+    // Draws that hit already seen items are repeated this often before the remaining items are scanned
+    private static final int SEEN_RETRIES = 16;
+
+    private volatile Snapshot snapshot = new Snapshot(new Material[0], emptyIndex());
+    // Weight by material ordinal, null = uniform
+    private volatile double[] weights;
+    private volatile Weighted weighted;
+    private final Executor rebuildExecutor;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    // Rebuilds may overlap on a pooled executor; the one that gets the lock last has read the newest state
+    private final Object rebuildLock = new Object();
+
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder incrementalUpdates = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder aliasRebuilds = new LongAdder();
+
+    /**
+     * Pool whose alias table is rebuilt on the calling thread, e.g. for benchmarks.
+     */
+    public ItemPool() {
+        this(Runnable::run);
+    }
+
+    /**
+     * @param rebuildExecutor runs the alias table rebuilds, off the tick threads
+     */
+    public ItemPool(Executor rebuildExecutor) {
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    /**
+     * Full rebuild from all materials. Only needed at enable time.
+     */
+    public void rebuild(Collection<Material> blacklist) {
+        rebuild(candidates(), blacklist);
+    }
+
+    /**
+     * Full rebuild from the given candidates instead of all obtainable items, e.g. for tests without a server.
+     */
+    synchronized void rebuild(Material[] candidates, Collection<Material> blacklist) {
+        Material[] items = new Material[candidates.length];
+        int[] index = emptyIndex();
+        int size = 0;
+        for (Material m : candidates) {
+            if (!blacklist.contains(m)) {
+                index[m.ordinal()] = size;
+                items[size++] = m;
+            }
+        }
+        snapshot = new Snapshot(Arrays.copyOf(items, size), index);
+        rebuilds.increment();
+        scheduleWeightedRebuild();
+    }
+
+    /**
+     * Removes a material from the pool (e.g. after /blockitem).
+     * @return true if the material was part of the pool
+     */
+    public synchronized boolean remove(Material material) {
+        Snapshot current = snapshot;
+        int pos = current.index[material.ordinal()];
+        if (pos < 0) return false;
+
+        // Swap-remove: move the last entry into the freed slot
+        int last = current.items.length - 1;
+        Material[] items = Arrays.copyOf(current.items, last);
+        int[] index = current.index.clone();
+        if (pos != last) {
+            Material moved = current.items[last];
+            items[pos] = moved;
+            index[moved.ordinal()] = pos;
+        }
+        index[material.ordinal()] = -1;
+        snapshot = new Snapshot(items, index);
+        incrementalUpdates.increment();
+        scheduleWeightedRebuild();
+        return true;
+    }
+
+    /**
+     * Adds a material back to the pool (e.g. removed from the blacklist on reload).
+     * @return true if the material was added
+     */
+    public synchronized boolean add(Material material) {
+        Snapshot current = snapshot;
+        if (current.index[material.ordinal()] >= 0 || !isCandidate(material)) return false;
+
+        Material[] items = Arrays.copyOf(current.items, current.items.length + 1);
+        int[] index = current.index.clone();
+        items[items.length - 1] = material;
+        index[material.ordinal()] = items.length - 1;
+        snapshot = new Snapshot(items, index);
+        incrementalUpdates.increment();
+        scheduleWeightedRebuild();
+        return true;
+    }
+
+    /**
+     * Sets the weight of every material by ordinal (0 = never drawn while others have weight), null for uniform sampling.
+     * The new alias table is built in the background.
+     */
+    public void setWeights(double[] weightsByOrdinal) {
+        weights = weightsByOrdinal != null ? weightsByOrdinal.clone() : null;
+        scheduleWeightedRebuild();
+    }
+
+    /**
+     * @return a random material from the pool, drawn by weight if weights are set, or null if the pool is empty
+     */
+    public Material sample() {
+        Snapshot current = snapshot;
+        Material[] items = current.items;
+        if (items.length == 0) return null;
+        samples.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Weighted table = weighted;
+        if (table != null) {
+            for (int i = 0; i < STALE_RETRIES; i++) {
+                Material item = table.items[table.alias.sample(random)];
+                if (current.index[item.ordinal()] >= 0) return item;
+            }
+        }
+        return items[random.nextInt(items.length)];
+    }
+
+    /**
+     * Draws like {@link #sample()}, but never an item in {@code exclude}. Rejection sampling while most of the pool is
+     * unseen, O(1) expected; a single weighted pass over the rest once the draws keep hitting seen items.
+     * @return null if every drawable item was seen or the pool is empty
+     */
+    public Material sample(SeenItems exclude) {
+        for (int i = 0; i < SEEN_RETRIES; i++) {
+            Material item = sample();
+            if (item == null) return null;
+            if (!exclude.contains(item)) return item;
+        }
+        Material[] items = snapshot.items;
+        double total = 0;
+        for (Material item : items) {
+            if (!exclude.contains(item)) total += drawWeight(item);
+        }
+        if (total <= 0) return null;
+        double target = ThreadLocalRandom.current().nextDouble(total);
+        Material last = null;
+        for (Material item : items) {
+            if (exclude.contains(item)) continue;
+            double weight = drawWeight(item);
+            if (weight <= 0) continue;
+            last = item;
+            target -= weight;
+            if (target < 0) return item;
+        }
+        // Rounding: the loop can end a hair short of the total
+        return last;
+    }
+
+    // Weight sample() gives the item: 1 without a table, else its weight
+    private double drawWeight(Material item) {
+        double[] byOrdinal = weights;
+        if (byOrdinal == null || weighted == null) return 1;
+        int ordinal = item.ordinal();
+        return ordinal < byOrdinal.length ? Math.max(0, byOrdinal[ordinal]) : 0;
+    }
+
+    private void scheduleWeightedRebuild() {
+        // Changes while a rebuild is queued are picked up by it, it reads the latest pool and weights
+        if (!rebuildScheduled.compareAndSet(false, true)) return;
+        rebuildExecutor.execute(() -> {
+            rebuildScheduled.set(false);
+            rebuildWeighted();
+        });
+    }
+
+    private void rebuildWeighted() {
+        synchronized (rebuildLock) {
+            double[] byOrdinal = weights;
+            if (byOrdinal == null) {
+                weighted = null;
+                return;
+            }
+            Material[] items = snapshot.items;
+            double[] columns = new double[items.length];
+            for (int i = 0; i < items.length; i++) {
+                int ordinal = items[i].ordinal();
+                columns[i] = ordinal < byOrdinal.length ? byOrdinal[ordinal] : 0;
+            }
+            AliasTable alias = AliasTable.build(columns);
+            // No item with weight left (e.g. the selected tiers are all blacklisted): uniform over the whole pool
+            weighted = alias != null ? new Weighted(items, alias) : null;
+            aliasRebuilds.increment();
+        }
+    }
+
+    public boolean contains(Material material) {
+        return snapshot.index[material.ordinal()] >= 0;
+    }
+
+    /**
+     * @return true if {@link #sample} could return the item: it is in the pool and, with weights set, has a weight
+     */
+    public boolean isDrawable(Material material) {
+        if (!contains(material)) return false;
+        double[] byOrdinal = weights;
+        // Without a table every pool item is drawn uniformly, see rebuildWeighted
+        if (byOrdinal == null || weighted == null) return true;
+        int ordinal = material.ordinal();
+        return ordinal < byOrdinal.length && byOrdinal[ordinal] > 0;
+    }
+
+    /**
+     * @return every material that can be a target at all (obtainable items, blacklist not applied), in ordinal order
+     */
+    public static Material[] candidates() {
+        return Arrays.stream(MATERIALS).filter(ItemPool::isCandidate).toArray(Material[]::new);
+    }
+
+    public int size() {
+        return snapshot.items.length;
+    }
+
+    public long getRebuildCount() {
+        return rebuilds.sum();
+    }
+
+    public long getIncrementalUpdateCount() {
+        return incrementalUpdates.sum();
+    }
+
+    public long getSampleCount() {
+        return samples.sum();
+    }
+
+    public long getAliasRebuildCount() {
+        return aliasRebuilds.sum();
+    }
+
+    private static boolean isCandidate(Material m) {
+        return m.isItem() && ItemBlacklist.isObtainable(m);
+    }
+
+    private static int[] emptyIndex() {
+        int[] index = new int[MATERIALS.length];
+        Arrays.fill(index, -1);
+        return index;
+    }
+
+    /**
+     * Immutable view of the pool: the candidate array and its position index by ordinal (-1 = not in pool).
+     */
+    private static final class Snapshot {
+        final Material[] items;
+        final int[] index;
+
+        Snapshot(Material[] items, int[] index) {
+            this.items = items;
+            this.index = index;
+        }
+    }
+
+    /**
+     * Alias table over the pool as it was when the table was built.
+     */
+    private static final class Weighted {
+        final Material[] items;
+        final AliasTable alias;
+
+        Weighted(Material[] items, AliasTable alias) {
+            this.items = items;
+            this.alias = alias;
+        }
+    }
+}
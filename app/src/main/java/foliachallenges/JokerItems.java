@@ -0,0 +1,105 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collections;
+
+/**
+ * Joker items in player inventories. Jokers are barriers tagged with a PersistentDataContainer key,
+ * so real barrier items are never mistaken for jokers.
+ * <p>
+ * {@link #sync} only applies the difference to the stacks already in the inventory instead of removing
+ * and re-adding everything. It touches the player's inventory and must run on the player's thread.
+ */
+public class JokerItems {
+
+    private static final Material MATERIAL = Material.BARRIER;
+
+    private final NamespacedKey key;
+
+    public JokerItems(Plugin plugin) {
+        this.key = new NamespacedKey(plugin, "joker");
+    }
+
+    public boolean isJoker(ItemStack item) {
+        // The material check is free and filters almost every item before the PDC is read
+        return item != null && item.getType() == MATERIAL && item.getPersistentDataContainer().has(key);
+    }
+
+    public ItemStack create(int amount, String name, String lore) {
+        ItemStack item = new ItemStack(MATERIAL, amount);
+        item.editMeta(meta -> {
+            meta.getPersistentDataContainer().set(key, PersistentDataType.BOOLEAN, true);
+            meta.setDisplayName(name);
+            meta.setLore(Collections.singletonList(lore));
+        });
+        return item;
+    }
+
+    /**
+     * Brings the number of jokers in the inventory to {@code target} by changing the existing stacks.
+     * Untagged jokers from older versions (barriers with the joker name) are replaced by tagged ones.
+     * @return the change that was applied
+     */
+    public int sync(Player player, int target, String name, String lore) {
+        Inventory inventory = player.getInventory();
+        int current = 0;
+        for (int slot = 0; slot < inventory.getSize(); slot++) {
+            ItemStack item = inventory.getItem(slot);
+            if (item == null || item.getType() != MATERIAL) continue;
+            if (isJoker(item)) {
+                current += item.getAmount();
+            } else if (isLegacyJoker(item, name)) {
+                inventory.setItem(slot, null);
+            }
+        }
+
+        int delta = target - current;
+        if (delta > 0) {
+            add(inventory, delta, name, lore);
+        } else if (delta < 0) {
+            remove(inventory, -delta);
+        }
+        return delta;
+    }
+
+    private void add(Inventory inventory, int amount, String name, String lore) {
+        // Fill up existing stacks first, only the rest becomes a new stack
+        for (int slot = 0; slot < inventory.getSize() && amount > 0; slot++) {
+            ItemStack item = inventory.getItem(slot);
+            if (!isJoker(item)) continue;
+            int added = Math.min(amount, item.getMaxStackSize() - item.getAmount());
+            if (added <= 0) continue;
+            item.setAmount(item.getAmount() + added);
+            amount -= added;
+        }
+        if (amount > 0) inventory.addItem(create(amount, name, lore));
+    }
+
+    private void remove(Inventory inventory, int amount) {
+        for (int slot = inventory.getSize() - 1; slot >= 0 && amount > 0; slot--) {
+            ItemStack item = inventory.getItem(slot);
+            if (!isJoker(item)) continue;
+            int removed = Math.min(amount, item.getAmount());
+            if (removed == item.getAmount()) {
+                inventory.setItem(slot, null);
+            } else {
+                item.setAmount(item.getAmount() - removed);
+            }
+            amount -= removed;
+        }
+    }
+
+    private boolean isLegacyJoker(ItemStack item, String name) {
+        if (!item.hasItemMeta()) return false;
+        ItemMeta meta = item.getItemMeta();
+        return meta.hasDisplayName() && meta.getDisplayName().equals(name);
+    }
+}
@@ -0,0 +1,161 @@
+package foliachallenges;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live ranking of all players with points, updated on every score change.
+ * <p>
+ * Entries are kept in a skip list ordered by score (descending), so top-N reads are lock-free and need no sorting.
+ * A Fenwick tree over the score values counts players per score and answers rank queries in O(log maxScore).
+ * Writers are serialized, readers never block.
+ */
+public class Leaderboard {
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt((Entry e) -> e.score).reversed()
+        .thenComparing(e -> e.uuid);
+
+    private final NavigableSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<UUID, String> names = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    // Fenwick tree, index = score (1-based), value = number of players with that score
+    private long[] tree = new long[64];
+    private int players;
+
+    /**
+     * Sets the score of a player. Players with 0 points are not ranked.
+     */
+    public synchronized void update(UUID uuid, int score) {
+        Entry old = entries.get(uuid);
+        if (old != null && old.score == score) return;
+        if (score >= tree.length) grow(score);
+        if (old != null) {
+            ranking.remove(old);
+            entries.remove(uuid);
+            add(old.score, -1);
+            players--;
+        }
+        if (score > 0) {
+            Entry entry = new Entry(uuid, score);
+            entries.put(uuid, entry);
+            ranking.add(entry);
+            add(score, 1);
+            players++;
+        }
+        version.incrementAndGet();
+    }
+
+    public synchronized void clear() {
+        ranking.clear();
+        entries.clear();
+        tree = new long[64];
+        players = 0;
+        version.incrementAndGet();
+    }
+
+    /**
+     * Competition rank ("1224"): 1 + number of players with a higher score.
+     * @return the rank, or 0 if the player has no points
+     */
+    public synchronized int rank(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) return 0;
+        return (int) (players - prefix(entry.score)) + 1;
+    }
+
+    public int getScore(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null ? entry.score : 0;
+    }
+
+    /**
+     * @return the best {@code limit} entries, best first
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> top = new ArrayList<>(Math.min(limit, 16));
+        Iterator<Entry> it = ranking.iterator();
+        while (it.hasNext() && top.size() < limit) top.add(it.next());
+        return top;
+    }
+
+    /**
+     * @return all ranked entries, best first
+     */
+    public List<Entry> entries() {
+        return new ArrayList<>(ranking);
+    }
+
+    public boolean isEmpty() {
+        return ranking.isEmpty();
+    }
+
+    /**
+     * Increases with every change, so renderers can skip work when nothing changed.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    // --- Name cache (filled on join, persisted with the challenge data) ---
+
+    public void rememberName(UUID uuid, String name) {
+        if (name != null) names.put(uuid, name);
+    }
+
+    public String getName(UUID uuid) {
+        return names.get(uuid);
+    }
+
+    public Map<UUID, String> getNames() {
+        return names;
+    }
+
+    // --- Fenwick tree ---
+
+    private void add(int score, long delta) {
+        if (score <= 0) return;
+        for (int i = score; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    private long prefix(int score) {
+        long sum = 0;
+        for (int i = Math.min(score, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    private void grow(int score) {
+        int size = tree.length;
+        while (size <= score) size <<= 1;
+        // Rebuild from the ranked entries, a Fenwick tree cannot simply be copied into a bigger array
+        tree = new long[size];
+        for (Entry entry : entries.values()) add(entry.score, 1);
+    }
+
+    public static final class Entry {
+        private final UUID uuid;
+        private final int score;
+
+        Entry(UUID uuid, int score) {
+            this.uuid = uuid;
+            this.score = score;
+        }
+
+        public UUID getUuid() {
+            return uuid;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package foliachallenges;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Live top-N of a {@link Leaderboard}, shown in the player list footer. Folia does not support the Bukkit scoreboard
+ * API, so the footer is sent to each player on their own thread by the {@link HudDispatcher}.
+ * <p>
+ * The component is built once per leaderboard change and shared by all players; their {@link HudState} only resends
+ * it when it differs from what they already see. Called from many region threads at once, a race only builds the
+ * same component twice.
+ */
+public class LeaderboardFooter {
+
+    public interface LineFormat {
+        Component line(int rank, String name, int score);
+    }
+
+    private final Leaderboard leaderboard;
+    private volatile Rendered rendered;
+
+    public LeaderboardFooter(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * @return the footer, or null if it is disabled ({@code size} 0) or nobody has points yet
+     */
+    public Component render(int size, Component title, LineFormat format) {
+        if (size <= 0 || leaderboard.isEmpty()) return null;
+        // Read before building: a change during the build leaves an outdated version and is picked up next time
+        long version = leaderboard.getVersion();
+        Rendered current = rendered;
+        if (current != null && current.version == version && current.size == size && current.title.equals(title)) {
+            return current.footer;
+        }
+        Component footer = title;
+        int rank = 0;
+        int previousScore = -1;
+        int position = 0;
+        for (Leaderboard.Entry entry : leaderboard.top(size)) {
+            position++;
+            // Competition ranking, equal scores share a rank like in rank()
+            if (entry.getScore() != previousScore) rank = position;
+            previousScore = entry.getScore();
+            String name = leaderboard.getName(entry.getUuid());
+            footer = footer.append(Component.newline())
+                .append(format.line(rank, name != null ? name : entry.getUuid().toString().substring(0, 8), entry.getScore()));
+        }
+        rendered = new Rendered(version, size, title, footer);
+        return footer;
+    }
+
+    /**
+     * Builds the footer again on the next render, e.g. after the messages were reloaded.
+     */
+    public void invalidate() {
+        rendered = null;
+    }
+
+    private static final class Rendered {
+        final long version;
+        final int size;
+        final Component title;
+        final Component footer;
+
+        Rendered(long version, int size, Component title, Component footer) {
+            this.version = version;
+            this.size = size;
+            this.title = title;
+            this.footer = footer;
+        }
+    }
+}
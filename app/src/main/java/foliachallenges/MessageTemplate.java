@@ -0,0 +1,198 @@
+package foliachallenges;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A message from messages.yml, split once into literal text and {@code %placeholder%} segments.
+ * <p>
+ * Messages with legacy § codes are rendered by concatenating the segments, so colors carry over into
+ * the placeholder values like before. Messages without § codes that contain tags like {@code <red>}
+ * are MiniMessage, their placeholders become {@code <name>} tags. Messages without placeholders are
+ * converted to a component only once.
+ * <p>
+ * Values may be components (e.g. translatable item names), they are inserted as they are and keep
+ * the client-side translation.
+ */
+public final class MessageTemplate {
+
+    static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacySection();
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+    private static final Pattern MINI_MESSAGE_TAG = Pattern.compile("<[a-zA-Z_#!/][^<>]*>");
+
+    // literals.length == placeholders.length + 1, the text is literals[0] placeholders[0] literals[1] ...
+    private final String[] literals;
+    private final String[] placeholders;
+    private final boolean miniMessage;
+    private final String miniMessageSource;
+
+    // Only set for messages without placeholders
+    private final String cachedText;
+    private final Component cachedComponent;
+    private volatile Component cachedPrefixed;
+
+    private MessageTemplate(String raw) {
+        List<String> literalList = new ArrayList<>();
+        List<String> placeholderList = new ArrayList<>();
+        int start = 0;
+        int open = raw.indexOf('%');
+        while (open >= 0) {
+            int close = raw.indexOf('%', open + 1);
+            if (close < 0) break;
+            String name = raw.substring(open + 1, close);
+            if (isPlaceholderName(name)) {
+                literalList.add(raw.substring(start, open));
+                placeholderList.add(name);
+                start = close + 1;
+                open = raw.indexOf('%', start);
+            } else {
+                // A lone percent sign, the closing one may start the next placeholder
+                open = close;
+            }
+        }
+        literalList.add(raw.substring(start));
+        this.literals = literalList.toArray(new String[0]);
+        this.placeholders = placeholderList.toArray(new String[0]);
+        this.miniMessage = raw.indexOf('§') < 0 && MINI_MESSAGE_TAG.matcher(raw).find();
+
+        if (miniMessage) {
+            StringBuilder source = new StringBuilder(raw.length());
+            for (int i = 0; i < placeholders.length; i++) {
+                source.append(literals[i]).append('<').append(placeholders[i]).append('>');
+            }
+            this.miniMessageSource = source.append(literals[placeholders.length]).toString();
+        } else {
+            this.miniMessageSource = null;
+        }
+
+        if (placeholders.length == 0) {
+            this.cachedComponent = miniMessage ? MINI_MESSAGE.deserialize(miniMessageSource) : LEGACY.deserialize(raw);
+            this.cachedText = miniMessage ? LEGACY.serialize(cachedComponent) : raw;
+        } else {
+            this.cachedComponent = null;
+            this.cachedText = null;
+        }
+    }
+
+    public static MessageTemplate compile(String raw) {
+        return new MessageTemplate(raw != null ? raw : "");
+    }
+
+    private static boolean isPlaceholderName(String name) {
+        if (name.isEmpty()) return false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9') && c != '_' && c != '-') return false;
+        }
+        return true;
+    }
+
+    public boolean isMiniMessage() {
+        return miniMessage;
+    }
+
+    /**
+     * Renders the message as legacy text, for boss bars, item names, inventory titles and the log.
+     * @param values alternating placeholder names (without %) and values
+     */
+    public String text(Object... values) {
+        if (cachedText != null) return cachedText;
+        if (miniMessage) return LEGACY.serialize(component(values));
+        StringBuilder sb = new StringBuilder(64);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(literals[i]).append(value(placeholders[i], values));
+        }
+        return sb.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * @param values alternating placeholder names (without %) and values
+     */
+    public Component component(Object... values) {
+        if (cachedComponent != null) return cachedComponent;
+        if (!miniMessage) return legacyComponent("", values);
+        TagResolver[] resolvers = new TagResolver[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            // Values may carry legacy colors from the code, they are inserted as components and never parsed as tags
+            Object value = rawValue(placeholders[i], values);
+            Component component = value instanceof ComponentLike like ? like.asComponent() : LEGACY.deserialize(value(placeholders[i], values));
+            resolvers[i] = Placeholder.component(placeholders[i], component);
+        }
+        return MINI_MESSAGE.deserialize(miniMessageSource, resolvers);
+    }
+
+    private Component legacyComponent(String prefix, Object[] values) {
+        boolean hasComponents = false;
+        for (int i = 1; i < values.length; i += 2) {
+            if (values[i] instanceof ComponentLike) {
+                hasComponents = true;
+                break;
+            }
+        }
+        if (!hasComponents) return LEGACY.deserialize(prefix + text(values));
+
+        // Component values stay as %name% markers in the text and are swapped in after deserializing,
+        // so the surrounding legacy colors still apply to them
+        StringBuilder sb = new StringBuilder(64).append(prefix);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(literals[i]);
+            if (rawValue(placeholders[i], values) instanceof ComponentLike) {
+                sb.append('%').append(placeholders[i]).append('%');
+            } else {
+                sb.append(value(placeholders[i], values));
+            }
+        }
+        Component component = LEGACY.deserialize(sb.append(literals[placeholders.length]).toString());
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (values[i + 1] instanceof ComponentLike like) {
+                String marker = "%" + values[i] + "%";
+                component = component.replaceText(builder -> builder.matchLiteral(marker).replacement(like));
+            }
+        }
+        return component;
+    }
+
+    /**
+     * The message behind the given legacy prefix. For legacy messages the prefix colors carry over like before.
+     */
+    public Component prefixed(String prefix, Object... values) {
+        if (cachedComponent != null) {
+            Component prefixed = cachedPrefixed;
+            if (prefixed == null) cachedPrefixed = prefixed = render(prefix, values);
+            return prefixed;
+        }
+        return render(prefix, values);
+    }
+
+    private Component render(String prefix, Object... values) {
+        if (miniMessage) return LEGACY.deserialize(prefix).append(component(values));
+        return legacyComponent(prefix, values);
+    }
+
+    private static Object rawValue(String name, Object[] values) {
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (name.equals(values[i])) return values[i + 1];
+        }
+        return null;
+    }
+
+    private static String value(String name, Object[] values) {
+        for (int i = 0; i + 1 < values.length; i += 2) {
+            if (name.equals(values[i])) {
+                Object value = values[i + 1];
+                // Plain text outputs get the legacy form, translatable names are flattened by the serializer
+                return value instanceof ComponentLike like ? LEGACY.serialize(like.asComponent()) : String.valueOf(value);
+            }
+        }
+        // Unknown placeholders stay visible, like the former replace() calls left them
+        return "%" + name + "%";
+    }
+}
@@ -0,0 +1,68 @@
+package foliachallenges;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All messages of messages.yml, compiled into {@link MessageTemplate}s once when the file is loaded.
+ * Instances are immutable from the outside; a reload builds a new instance and swaps it in as a whole,
+ * so a message is never rendered from a half-loaded file.
+ */
+public final class Messages {
+
+    public static final String PREFIX = "§8§l┃ §bFoliaChallenges §8┃§7 ";
+
+    private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+    // Templates of the inline defaults for keys missing in the file, compiled on first use
+    private final Map<String, MessageTemplate> defaults = new ConcurrentHashMap<>();
+
+    private Messages(FileConfiguration file) {
+        for (String key : file.getKeys(true)) {
+            if (file.isString(key)) templates.put(key, MessageTemplate.compile(file.getString(key)));
+        }
+    }
+
+    public static Messages load(File file) {
+        return new Messages(YamlConfiguration.loadConfiguration(file));
+    }
+
+    public MessageTemplate template(String key, String def) {
+        MessageTemplate template = templates.get(key);
+        if (template != null) return template;
+        return defaults.computeIfAbsent(key, k -> MessageTemplate.compile(def));
+    }
+
+    /**
+     * @param values alternating placeholder names (without %) and values
+     */
+    public String text(String key, String def, Object... values) {
+        return template(key, def).text(values);
+    }
+
+    public Component component(String key, String def, Object... values) {
+        return template(key, def).component(values);
+    }
+
+    /**
+     * The message with the plugin prefix, used for all chat output.
+     */
+    public Component prefixed(String key, String def, Object... values) {
+        return template(key, def).prefixed(PREFIX, values);
+    }
+
+    /**
+     * Prefixes text that was already rendered, e.g. several messages joined together.
+     */
+    public Component prefix(String text) {
+        return MessageTemplate.LEGACY.deserialize(PREFIX + text);
+    }
+
+    public static Component legacy(String text) {
+        return MessageTemplate.LEGACY.deserialize(text);
+    }
+}
@@ -0,0 +1,106 @@
+package foliachallenges;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Named latency histograms, counters and gauges of the plugin.
+ * Hot paths look up their histogram or counter once and keep the reference, recording is lock-free.
+ * Names are lower case with underscores, they become {@code foliachallenges_<name>} in the Prometheus export.
+ */
+public class Metrics {
+
+    private static final String PREFIX = "foliachallenges_";
+    private static final double[] QUANTILES = {0.5, 0.99};
+
+    // Sorted, so /challenges stats and the export list everything in a stable order
+    private final Map<String, LatencyHistogram> timers = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, n -> new LongAdder());
+    }
+
+    /**
+     * Registers a value that is read when the metrics are shown or exported.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public Map<String, LatencyHistogram> getTimers() {
+        return timers;
+    }
+
+    public Map<String, LongAdder> getCounters() {
+        return counters;
+    }
+
+    public Map<String, LongSupplier> getGauges() {
+        return gauges;
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format. Latencies are exported in seconds.
+     */
+    public void writePrometheus(Writer out) throws IOException {
+        for (Map.Entry<String, LatencyHistogram> entry : timers.entrySet()) {
+            String name = PREFIX + entry.getKey() + "_seconds";
+            LatencyHistogram histogram = entry.getValue();
+            out.write("# TYPE " + name + " summary\n");
+            for (double quantile : QUANTILES) {
+                out.write(name + "{quantile=\"" + quantile + "\"} " + seconds(histogram.percentile(quantile)) + "\n");
+            }
+            out.write(name + "_sum " + seconds(histogram.getSum()) + "\n");
+            out.write(name + "_count " + histogram.getCount() + "\n");
+            out.write("# TYPE " + name + "_max gauge\n");
+            out.write(name + "_max " + seconds(histogram.getMax()) + "\n");
+        }
+        for (Map.Entry<String, LongAdder> entry : counters.entrySet()) {
+            String name = PREFIX + entry.getKey() + "_total";
+            out.write("# TYPE " + name + " counter\n");
+            out.write(name + " " + entry.getValue().sum() + "\n");
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            String name = PREFIX + entry.getKey();
+            out.write("# TYPE " + name + " gauge\n");
+            out.write(name + " " + entry.getValue().getAsLong() + "\n");
+        }
+    }
+
+    /**
+     * Writes the Prometheus export to a temporary file and moves it over the target,
+     * so a scraper (e.g. the node exporter textfile collector) never reads a partial file.
+     */
+    public void exportTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writePrometheus(out);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,292 @@
+package foliachallenges;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded queue for outbound notifications, delivered in batches by a single background thread.
+ * <p>
+ * {@link #offer} never blocks: it only puts the message into an in-memory map, identical pending messages are
+ * coalesced into one line with a count. The worker sends up to {@code maxBatch} messages per run. If the sink fails,
+ * the batch is kept and retried with exponential backoff; while the sink is down, pending messages are spilled to
+ * a file in the data folder and picked up again once delivery works. On disable everything left is spilled as well,
+ * a new queue loads the file when it is created.
+ * <p>
+ * One queue lives as long as the plugin; a reload only swaps the sink and limits through {@link #reconfigure}, so
+ * pending and spilled messages are kept and the replaced sink is closed.
+ */
+public class NotificationQueue {
+
+    private static final long INITIAL_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(2);
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Path spillFile;
+    private final Logger logger;
+    private final long initialBackoffMillis;
+    // Replaced by reconfigure
+    private volatile NotificationSink sink;
+    private volatile int capacity;
+    private volatile int maxBatch;
+    private volatile long batchDelayMillis;
+
+    // Message -> number of times it was offered, in offer order; guarded by this
+    private LinkedHashMap<String, Integer> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    // Only touched by the worker thread
+    private long backoffMillis;
+
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "FoliaChallenges-Notifications");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder sent;
+    private final LongAdder coalesced;
+    private final LongAdder failedBatches;
+    private final LongAdder spilled;
+    private final LongAdder dropped;
+
+    public NotificationQueue(NotificationSink sink, Path spillFile, Logger logger, Metrics metrics, int capacity, int maxBatch, long batchDelayMillis) {
+        this(sink, spillFile, logger, metrics, capacity, maxBatch, batchDelayMillis, INITIAL_BACKOFF_MILLIS);
+    }
+
+    /**
+     * @param initialBackoffMillis delay of the first retry, doubled for every further failure
+     */
+    NotificationQueue(NotificationSink sink, Path spillFile, Logger logger, Metrics metrics, int capacity, int maxBatch, long batchDelayMillis,
+                      long initialBackoffMillis) {
+        this.sink = sink;
+        this.spillFile = spillFile;
+        this.logger = logger;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.batchDelayMillis = batchDelayMillis;
+        this.sent = metrics.counter("notifications_sent");
+        this.coalesced = metrics.counter("notifications_coalesced");
+        this.failedBatches = metrics.counter("notifications_failed_batches");
+        this.spilled = metrics.counter("notifications_spilled");
+        this.dropped = metrics.counter("notifications_dropped");
+        metrics.gauge("notifications_pending", this::size);
+        // Messages spilled before the last shutdown are sent first
+        loadSpill();
+        if (!pendingIsEmpty()) scheduleFlush(batchDelayMillis);
+    }
+
+    /**
+     * Switches to a new sink and limits, e.g. after a reload. Pending messages are kept and go to the new sink;
+     * the old one is closed, a batch it was still sending fails and is retried.
+     */
+    public void reconfigure(NotificationSink sink, int capacity, int maxBatch, long batchDelayMillis) {
+        NotificationSink old = this.sink;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.batchDelayMillis = batchDelayMillis;
+        this.sink = sink;
+        if (old != sink) old.close();
+        if (!pendingIsEmpty() || Files.exists(spillFile)) scheduleFlush(batchDelayMillis);
+    }
+
+    /**
+     * Queues a message without blocking. Dropped only if the queue is full and the sink is not keeping up.
+     */
+    public void offer(String message) {
+        String text = message.replace('\n', ' ').replace('\r', ' ');
+        synchronized (this) {
+            Integer count = pending.get(text);
+            if (count != null) {
+                pending.put(text, count + 1);
+                coalesced.increment();
+            } else if (pending.size() < capacity) {
+                pending.put(text, 1);
+            } else {
+                dropped.increment();
+                return;
+            }
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        schedule(batchDelayMillis);
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    private void scheduleFlush(long delayMillis) {
+        synchronized (this) {
+            flushScheduled = true;
+        }
+        schedule(delayMillis);
+    }
+
+    private void schedule(long delayMillis) {
+        try {
+            worker.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shut down, shutdown() spills what is still pending
+        }
+    }
+
+    private void flush() {
+        if (pendingIsEmpty()) loadSpill();
+        Map<String, Integer> batch = takeBatch();
+        if (batch.isEmpty()) return;
+
+        try {
+            sink.send(render(batch));
+            sent.add(batch.size());
+            if (backoffMillis > 0) logger.info("Notification sink is reachable again");
+            backoffMillis = 0;
+            loadSpill();
+        } catch (IOException | RuntimeException e) {
+            failedBatches.increment();
+            // Only what did not go through is retried, delivered messages would be posted twice
+            int delivered = e instanceof NotificationSink.PartialDeliveryException ? ((NotificationSink.PartialDeliveryException) e).getDelivered() : 0;
+            sent.add(delivered);
+            requeue(skip(batch, delivered));
+            if (backoffMillis == 0) {
+                logger.log(Level.WARNING, "Could not deliver notifications, retrying in the background: " + e.getMessage());
+                backoffMillis = initialBackoffMillis;
+            } else {
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            }
+            // Keep the memory small while the sink is down, the messages wait on disk
+            if (size() > maxBatch) spill();
+            long jitter = ThreadLocalRandom.current().nextLong(backoffMillis / 4 + 1);
+            scheduleFlush(backoffMillis + jitter);
+            return;
+        }
+
+        if (!pendingIsEmpty()) scheduleFlush(batchDelayMillis);
+    }
+
+    private synchronized boolean pendingIsEmpty() {
+        return pending.isEmpty();
+    }
+
+    private synchronized Map<String, Integer> takeBatch() {
+        flushScheduled = false;
+        Map<String, Integer> batch = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, Integer>> it = pending.entrySet().iterator();
+        while (it.hasNext() && batch.size() < maxBatch) {
+            Map.Entry<String, Integer> entry = it.next();
+            batch.put(entry.getKey(), entry.getValue());
+            it.remove();
+        }
+        return batch;
+    }
+
+    private static Map<String, Integer> skip(Map<String, Integer> batch, int count) {
+        if (count <= 0) return batch;
+        Map<String, Integer> rest = new LinkedHashMap<>();
+        int index = 0;
+        for (Map.Entry<String, Integer> entry : batch.entrySet()) {
+            if (index++ >= count) rest.put(entry.getKey(), entry.getValue());
+        }
+        return rest;
+    }
+
+    // Puts a failed batch back in front of everything offered since
+    private synchronized void requeue(Map<String, Integer> batch) {
+        LinkedHashMap<String, Integer> merged = new LinkedHashMap<>(batch);
+        pending.forEach((text, count) -> merged.merge(text, count, Integer::sum));
+        pending = merged;
+    }
+
+    private static List<String> render(Map<String, Integer> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        batch.forEach((text, count) -> lines.add(count > 1 ? text + " (x" + count + ")" : text));
+        return lines;
+    }
+
+    private void spill() {
+        Map<String, Integer> toSpill;
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+            toSpill = pending;
+            pending = new LinkedHashMap<>();
+        }
+        List<String> lines = new ArrayList<>(toSpill.size());
+        toSpill.forEach((text, count) -> lines.add(count + "\t" + text));
+        try {
+            Files.write(spillFile, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            spilled.add(lines.size());
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write " + spillFile.getFileName() + ", " + lines.size() + " notifications are lost", e);
+            dropped.add(lines.size());
+        }
+    }
+
+    // Moves spilled messages back into memory as far as the capacity allows
+    private void loadSpill() {
+        if (!Files.exists(spillFile)) return;
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(spillFile, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not read " + spillFile.getFileName(), e);
+            return;
+        }
+        List<String> rest = new ArrayList<>();
+        synchronized (this) {
+            for (String line : lines) {
+                int tab = line.indexOf('\t');
+                if (tab <= 0) continue;
+                String text = line.substring(tab + 1);
+                int count;
+                try {
+                    count = Integer.parseInt(line.substring(0, tab));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (pending.size() < capacity || pending.containsKey(text)) {
+                    pending.merge(text, count, Integer::sum);
+                } else {
+                    rest.add(line);
+                }
+            }
+        }
+        try {
+            if (rest.isEmpty()) {
+                Files.deleteIfExists(spillFile);
+            } else {
+                Files.write(spillFile, rest, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not update " + spillFile.getFileName(), e);
+        }
+    }
+
+    /**
+     * Stops the worker and spills what was not delivered yet, it is sent after the next start.
+     */
+    public void shutdown() {
+        worker.shutdownNow();
+        try {
+            worker.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spill();
+        sink.close();
+    }
+}
@@ -0,0 +1,45 @@
+package foliachallenges;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of outbound notifications, e.g. shared blacklist entries.
+ * Only called from the {@link NotificationQueue} worker thread, so implementations may block.
+ */
+public interface NotificationSink {
+
+    /**
+     * Drops every notification, used when sharing is configured off.
+     */
+    NotificationSink NONE = messages -> { };
+
+    /**
+     * Delivers one batch. Throwing makes the queue retry the batch later; a {@link PartialDeliveryException} tells it
+     * that the first messages already went through, only the rest is retried.
+     */
+    void send(List<String> messages) throws IOException;
+
+    /**
+     * Releases connections and threads. Called once the queue no longer uses the sink, e.g. after a reload replaced it.
+     */
+    default void close() {
+    }
+
+    /**
+     * The sink failed after delivering the first {@link #getDelivered()} messages of the batch.
+     */
+    class PartialDeliveryException extends IOException {
+
+        private final int delivered;
+
+        public PartialDeliveryException(int delivered, IOException cause) {
+            super(cause.getMessage(), cause);
+            this.delivered = delivered;
+        }
+
+        public int getDelivered() {
+            return delivered;
+        }
+    }
+}
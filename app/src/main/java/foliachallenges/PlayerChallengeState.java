@@ -0,0 +1,186 @@
+package foliachallenges;
+
+import net.kyori.adventure.bossbar.BossBar;
+import org.bukkit.Material;
+import org.bukkit.entity.ItemDisplay;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Challenge state of a single player.
+ * Instances live in a ConcurrentHashMap keyed by UUID and are shared between Folia's region threads,
+ * so every field is either atomic or volatile. Counters are updated with atomic operations, never read-modify-write.
+ */
+public class PlayerChallengeState {
+
+    // Marks jokers that were never handed out / stored jokers that are not set
+    private static final int UNSET = -1;
+    private static final long FREEZE_TITLE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(3);
+
+    private final UUID uuid;
+    private volatile Material assignedItem;
+    // Challenge time when the target was assigned, -1 if unknown
+    private volatile long assignedAtMillis = UNSET;
+    // Next position in the race mode sequence
+    private final AtomicInteger raceCursor = new AtomicInteger();
+    private final SeenItems seenItems = new SeenItems();
+    private final AtomicInteger score = new AtomicInteger();
+    private final AtomicInteger jokers = new AtomicInteger(UNSET);
+    private final AtomicInteger storedJokers = new AtomicInteger(UNSET);
+
+    // HUD elements, only touched while the player is online
+    private volatile BossBar bossBar;
+    private volatile ItemDisplay itemDisplay;
+    private volatile long lastFreezeTitle;
+
+    public PlayerChallengeState(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    // --- Target item ---
+
+    public Material getAssignedItem() {
+        return assignedItem;
+    }
+
+    public void setAssignedItem(Material assignedItem) {
+        this.assignedItem = assignedItem;
+    }
+
+    public long getAssignedAtMillis() {
+        return assignedAtMillis;
+    }
+
+    public void setAssignedAtMillis(long assignedAtMillis) {
+        this.assignedAtMillis = assignedAtMillis;
+    }
+
+    /**
+     * @return every item the player had as target in this round
+     */
+    public SeenItems getSeenItems() {
+        return seenItems;
+    }
+
+    /**
+     * @return the race mode cursor to read, the cursor moves on to the next position
+     */
+    public int nextRaceCursor() {
+        return raceCursor.getAndIncrement();
+    }
+
+    public void setRaceCursor(int cursor) {
+        raceCursor.set(cursor);
+    }
+
+    /**
+     * Clears the target only if it is still the given item.
+     */
+    public boolean clearAssignedItem(Material expected) {
+        if (assignedItem != expected) return false;
+        assignedItem = null;
+        return true;
+    }
+
+    // --- Score ---
+
+    public int getScore() {
+        return score.get();
+    }
+
+    public void setScore(int value) {
+        score.set(value);
+    }
+
+    public int incrementScore() {
+        return score.incrementAndGet();
+    }
+
+    // --- Jokers ---
+
+    public boolean hasJokerCount() {
+        return jokers.get() != UNSET;
+    }
+
+    public int getJokers() {
+        return Math.max(0, jokers.get());
+    }
+
+    public void setJokers(int value) {
+        jokers.set(value);
+    }
+
+    /**
+     * Hands out the default amount if the player never had jokers before.
+     */
+    public void initJokers(int defaultJokers) {
+        jokers.compareAndSet(UNSET, defaultJokers);
+    }
+
+    public void addJokers(int delta) {
+        jokers.updateAndGet(current -> Math.max(0, current) + delta);
+    }
+
+    /**
+     * @return remaining jokers after using one, or -1 if the player had none left
+     */
+    public int useJoker() {
+        int current;
+        do {
+            current = jokers.get();
+            if (current <= 0) return -1;
+        } while (!jokers.compareAndSet(current, current - 1));
+        return current - 1;
+    }
+
+    /**
+     * Parks the jokers while the player is not in survival mode.
+     */
+    public void storeJokers() {
+        storedJokers.set(Math.max(0, jokers.getAndSet(0)));
+    }
+
+    /**
+     * @return true if stored jokers were restored
+     */
+    public boolean restoreJokers() {
+        int stored = storedJokers.getAndSet(UNSET);
+        if (stored == UNSET) return false;
+        jokers.set(stored);
+        return true;
+    }
+
+    // --- HUD ---
+
+    public BossBar getBossBar() {
+        return bossBar;
+    }
+
+    public void setBossBar(BossBar bossBar) {
+        this.bossBar = bossBar;
+    }
+
+    public ItemDisplay getItemDisplay() {
+        return itemDisplay;
+    }
+
+    public void setItemDisplay(ItemDisplay itemDisplay) {
+        this.itemDisplay = itemDisplay;
+    }
+
+    /**
+     * Rate limit for the "timer paused" title. Only called from the player's own region thread.
+     * @return true if the title should be sent now
+     */
+    public boolean tryFreezeTitle(long now) {
+        if (lastFreezeTitle != 0 && now - lastFreezeTitle < FREEZE_TITLE_INTERVAL_NANOS) return false;
+        lastFreezeTitle = now;
+        return true;
+    }
+}
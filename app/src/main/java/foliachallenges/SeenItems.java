@@ -0,0 +1,79 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Items a player already had as target, one bit per material ordinal.
+ * About 200 bytes per player; updated from the player's thread and read by the snapshot,
+ * so the words are atomic. Stored in data.yml as base64 of the little-endian words.
+ */
+public final class SeenItems {
+
+    private static final int MATERIAL_COUNT = Material.values().length;
+    private static final int WORDS = (MATERIAL_COUNT + 63) >>> 6;
+
+    private final AtomicLongArray words = new AtomicLongArray(WORDS);
+
+    /**
+     * @return true if the item was not seen before
+     */
+    public boolean add(Material item) {
+        int ordinal = item.ordinal();
+        long bit = 1L << ordinal;
+        long old = words.getAndAccumulate(ordinal >>> 6, bit, (current, mask) -> current | mask);
+        return (old & bit) == 0;
+    }
+
+    public boolean contains(Material item) {
+        int ordinal = item.ordinal();
+        return (words.get(ordinal >>> 6) & (1L << ordinal)) != 0;
+    }
+
+    public int count() {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) count += Long.bitCount(words.get(i));
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < WORDS; i++) {
+            if (words.get(i) != 0) return false;
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < WORDS; i++) words.set(i, 0);
+    }
+
+    public String toBase64() {
+        ByteBuffer buffer = ByteBuffer.allocate(WORDS * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < WORDS; i++) buffer.putLong(words.get(i));
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    /**
+     * Replaces the content with a {@link #toBase64()} string. Ordinals beyond the current materials are dropped.
+     * @throws IllegalArgumentException if the string is not valid base64
+     */
+    public void load(String base64) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(base64)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < WORDS; i++) {
+            long word = buffer.remaining() >= Long.BYTES ? buffer.getLong() : 0;
+            if (i == WORDS - 1 && (MATERIAL_COUNT & 63) != 0) word &= (1L << (MATERIAL_COUNT & 63)) - 1;
+            words.set(i, word);
+        }
+    }
+
+    /**
+     * @return number of materials the bits refer to; saved bitsets from a different Minecraft version are not loaded
+     */
+    public static int materialCount() {
+        return MATERIAL_COUNT;
+    }
+}
@@ -0,0 +1,374 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * History in an embedded SQLite file (history.db). Paper ships the SQLite JDBC driver, so no extra dependency is needed.
+ * <p>
+ * The connection belongs to one writer thread. Callers only put operations into a queue; the thread drains it and
+ * writes everything it took in one transaction with batched statements, so a burst of found items costs one commit.
+ * Queries go through the same queue and see every write that was queued before them.
+ */
+public class SqliteStorage implements ChallengeStorage {
+
+    private static final int MAX_BATCH = 512;
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS rounds (id TEXT PRIMARY KEY, session TEXT NOT NULL, started_at INTEGER NOT NULL,"
+            + " ended_at INTEGER, duration_seconds INTEGER NOT NULL, completed INTEGER NOT NULL DEFAULT 0, race_seed INTEGER)",
+        "CREATE INDEX IF NOT EXISTS rounds_session_started ON rounds (session, started_at)",
+        "CREATE TABLE IF NOT EXISTS results (round_id TEXT NOT NULL, player TEXT NOT NULL, name TEXT NOT NULL,"
+            + " score INTEGER NOT NULL, place INTEGER NOT NULL, PRIMARY KEY (round_id, player))",
+        "CREATE INDEX IF NOT EXISTS results_player ON results (player)",
+        "CREATE INDEX IF NOT EXISTS results_name ON results (name COLLATE NOCASE)",
+        "CREATE TABLE IF NOT EXISTS finds (round_id TEXT NOT NULL, player TEXT NOT NULL, item TEXT NOT NULL, found_at INTEGER NOT NULL,"
+            + " search_millis INTEGER)",
+        "CREATE INDEX IF NOT EXISTS finds_player ON finds (player)",
+        "CREATE INDEX IF NOT EXISTS finds_round ON finds (round_id)",
+        // Covers the search time aggregation, so it never reads the table itself
+        "CREATE INDEX IF NOT EXISTS finds_item ON finds (item, search_millis)"
+    };
+
+    private static final String RECENT_ROUNDS = "SELECT r.id, r.started_at, r.ended_at, r.completed,"
+        + " (SELECT COUNT(*) FROM results x WHERE x.round_id = r.id),"
+        + " (SELECT w.name FROM results w WHERE w.round_id = r.id AND w.place = 1 AND w.score > 0 ORDER BY w.name LIMIT 1),"
+        + " (SELECT MAX(w.score) FROM results w WHERE w.round_id = r.id)"
+        + " FROM rounds r WHERE r.session = ? AND r.ended_at IS NOT NULL ORDER BY r.started_at DESC LIMIT ?";
+    private static final String FIND_PLAYER = "SELECT player, name FROM results WHERE name = ? COLLATE NOCASE ORDER BY rowid DESC LIMIT 1";
+    private static final String PLAYER_RESULTS = "SELECT COUNT(*), SUM(CASE WHEN x.place = 1 AND x.score > 0 AND r.completed = 1 THEN 1 ELSE 0 END),"
+        + " MAX(x.score) FROM results x JOIN rounds r ON r.id = x.round_id WHERE x.player = ?";
+    private static final String PLAYER_FINDS = "SELECT COUNT(*) FROM finds WHERE player = ?";
+    private static final String SEARCH_TIMES = "SELECT item, COUNT(*), AVG(search_millis) FROM finds WHERE search_millis >= 0 GROUP BY item";
+
+    private interface Operation {
+        void run() throws SQLException;
+    }
+
+    private static final Operation STOP = () -> { };
+
+    private final Connection connection;
+    private final Logger logger;
+    private final BlockingQueue<Operation> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // Writes of the current transaction, executed in this order so rows always come after the round they belong to
+    private final PreparedStatement insertRound;
+    private final PreparedStatement insertFind;
+    private final PreparedStatement finishRound;
+    private final PreparedStatement insertResult;
+    private boolean batchPending;
+
+    private final LatencyHistogram writeTimer;
+    private final LatencyHistogram queryTimer;
+    private final LongAdder written;
+    private final LongAdder failedBatches;
+
+    private SqliteStorage(Connection connection, Logger logger, Metrics metrics) throws SQLException {
+        this.connection = connection;
+        this.logger = logger;
+        try (Statement statement = connection.createStatement()) {
+            // WAL keeps commits cheap and lets the file be copied while the server runs
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            for (String sql : SCHEMA) statement.execute(sql);
+        }
+        connection.setAutoCommit(false);
+        this.insertRound = connection.prepareStatement("INSERT OR IGNORE INTO rounds (id, session, started_at, duration_seconds, race_seed) VALUES (?, ?, ?, ?, ?)");
+        this.insertFind = connection.prepareStatement("INSERT INTO finds (round_id, player, item, found_at, search_millis) VALUES (?, ?, ?, ?, ?)");
+        this.finishRound = connection.prepareStatement("UPDATE rounds SET ended_at = ?, completed = ? WHERE id = ?");
+        this.insertResult = connection.prepareStatement("INSERT OR REPLACE INTO results (round_id, player, name, score, place) VALUES (?, ?, ?, ?, ?)");
+        connection.commit();
+
+        this.writeTimer = metrics.timer("storage_write");
+        this.queryTimer = metrics.timer("storage_query");
+        this.written = metrics.counter("storage_rows_written");
+        this.failedBatches = metrics.counter("storage_failed_batches");
+        metrics.gauge("storage_queue", queue::size);
+
+        this.writer = new Thread(this::runWriter, "FoliaChallenges-Storage");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens or creates the database and its tables.
+     * @throws SQLException if the driver is missing or the file cannot be opened
+     */
+    public static SqliteStorage open(File file, Logger logger, Metrics metrics) throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite JDBC driver not found", e);
+        }
+        Connection connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+        try {
+            return new SqliteStorage(connection, logger, metrics);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    // --- Writes ---
+
+    @Override
+    public void roundStarted(String roundId, String session, long startedAt, long durationSeconds, Long raceSeed) {
+        enqueue(() -> {
+            insertRound.setString(1, roundId);
+            insertRound.setString(2, session);
+            insertRound.setLong(3, startedAt);
+            insertRound.setLong(4, durationSeconds);
+            if (raceSeed != null) {
+                insertRound.setLong(5, raceSeed);
+            } else {
+                insertRound.setNull(5, Types.INTEGER);
+            }
+            insertRound.addBatch();
+        });
+    }
+
+    @Override
+    public void itemFound(String roundId, UUID player, Material item, long foundAt, long searchMillis) {
+        enqueue(() -> {
+            insertFind.setString(1, roundId);
+            insertFind.setString(2, player.toString());
+            insertFind.setString(3, item.name());
+            insertFind.setLong(4, foundAt);
+            if (searchMillis >= 0) {
+                insertFind.setLong(5, searchMillis);
+            } else {
+                insertFind.setNull(5, Types.INTEGER);
+            }
+            insertFind.addBatch();
+        });
+    }
+
+    @Override
+    public void roundFinished(String roundId, long endedAt, boolean completed, List<PlayerResult> results) {
+        enqueue(() -> {
+            finishRound.setLong(1, endedAt);
+            finishRound.setInt(2, completed ? 1 : 0);
+            finishRound.setString(3, roundId);
+            finishRound.addBatch();
+            for (PlayerResult result : results) {
+                insertResult.setString(1, roundId);
+                insertResult.setString(2, result.getUuid().toString());
+                insertResult.setString(3, result.getName());
+                insertResult.setInt(4, result.getScore());
+                insertResult.setInt(5, result.getRank());
+                insertResult.addBatch();
+            }
+        });
+    }
+
+    private void enqueue(Operation operation) {
+        if (closed) return;
+        queue.add(() -> {
+            operation.run();
+            batchPending = true;
+        });
+    }
+
+    // --- Queries ---
+
+    @Override
+    public CompletableFuture<List<RoundSummary>> recentRounds(String session, int limit) {
+        CompletableFuture<List<RoundSummary>> future = new CompletableFuture<>();
+        query(future, () -> {
+            List<RoundSummary> rounds = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(RECENT_ROUNDS)) {
+                statement.setString(1, session);
+                statement.setInt(2, limit);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rounds.add(new RoundSummary(rs.getString(1), rs.getLong(2), rs.getLong(3), rs.getInt(4) != 0,
+                            rs.getInt(5), rs.getString(6), rs.getInt(7)));
+                    }
+                }
+            }
+            return rounds;
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> playerStats(String playerName) {
+        CompletableFuture<PlayerStats> future = new CompletableFuture<>();
+        query(future, () -> {
+            String uuid;
+            String name;
+            try (PreparedStatement statement = connection.prepareStatement(FIND_PLAYER)) {
+                statement.setString(1, playerName);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) return null;
+                    uuid = rs.getString(1);
+                    name = rs.getString(2);
+                }
+            }
+            int rounds;
+            int wins;
+            int best;
+            try (PreparedStatement statement = connection.prepareStatement(PLAYER_RESULTS)) {
+                statement.setString(1, uuid);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    rounds = rs.getInt(1);
+                    wins = rs.getInt(2);
+                    best = rs.getInt(3);
+                }
+            }
+            long items;
+            try (PreparedStatement statement = connection.prepareStatement(PLAYER_FINDS)) {
+                statement.setString(1, uuid);
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    items = rs.getLong(1);
+                }
+            }
+            return new PlayerStats(name, rounds, wins, items, best);
+        });
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Map<Material, SearchTime>> searchTimes() {
+        CompletableFuture<Map<Material, SearchTime>> future = new CompletableFuture<>();
+        query(future, () -> {
+            Map<Material, SearchTime> times = new EnumMap<>(Material.class);
+            try (PreparedStatement statement = connection.prepareStatement(SEARCH_TIMES);
+                 ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Material item = Material.getMaterial(rs.getString(1));
+                    // Items renamed or removed by a Minecraft update are skipped
+                    if (item != null) times.put(item, new SearchTime(rs.getLong(2), Math.round(rs.getDouble(3))));
+                }
+            }
+            return times;
+        });
+        return future;
+    }
+
+    private interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    private <T> void query(CompletableFuture<T> future, Query<T> query) {
+        if (closed) {
+            future.completeExceptionally(new SQLException("Storage is closed"));
+            return;
+        }
+        queue.add(() -> {
+            // Earlier writes first, so the answer includes everything that happened before the query
+            commitBatch();
+            long start = System.nanoTime();
+            try {
+                future.complete(query.run());
+            } catch (SQLException | RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                queryTimer.recordSince(start);
+            }
+        });
+    }
+
+    // --- Writer thread ---
+
+    private void runWriter() {
+        List<Operation> operations = new ArrayList<>(MAX_BATCH);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                operations.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(operations, MAX_BATCH - 1);
+            for (Operation operation : operations) {
+                if (operation == STOP) {
+                    stop = true;
+                    break;
+                }
+                try {
+                    operation.run();
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Could not prepare a history write", e);
+                }
+            }
+            operations.clear();
+            commitBatch();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not close history.db", e);
+        }
+    }
+
+    private void commitBatch() {
+        if (!batchPending) return;
+        batchPending = false;
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            rows += executeBatch(insertRound);
+            rows += executeBatch(insertFind);
+            rows += executeBatch(finishRound);
+            rows += executeBatch(insertResult);
+            connection.commit();
+            written.add(rows);
+        } catch (SQLException e) {
+            failedBatches.increment();
+            logger.log(Level.WARNING, "Could not write challenge history, the last batch is lost", e);
+            try {
+                insertRound.clearBatch();
+                insertFind.clearBatch();
+                finishRound.clearBatch();
+                insertResult.clearBatch();
+                connection.rollback();
+            } catch (SQLException ignored) {
+                // The connection is broken, the next batch reports it again
+            }
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+
+    private static int executeBatch(PreparedStatement statement) throws SQLException {
+        return statement.executeBatch().length;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        queue.add(STOP);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) logger.warning("History writes did not finish within " + CLOSE_TIMEOUT_SECONDS + " seconds");
+    }
+}
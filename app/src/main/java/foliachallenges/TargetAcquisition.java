@@ -0,0 +1,47 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Amount of a player's target taken when an inventory click fires, compared on the next tick after the click was applied.
+ * Only a higher amount counts as found, so moving or sorting a stack the player already carried does not score,
+ * and a check queued for a target that was reassigned in the meantime is dropped.
+ */
+public final class TargetAcquisition {
+
+    private final Material target;
+    private final int before;
+
+    private TargetAcquisition(Material target, int before) {
+        this.target = target;
+        this.before = before;
+    }
+
+    public static TargetAcquisition before(Material target, ItemStack[] contents, ItemStack cursor) {
+        return new TargetAcquisition(target, amount(target, contents, cursor));
+    }
+
+    public Material getTarget() {
+        return target;
+    }
+
+    /**
+     * @param assigned the player's target when the check runs
+     * @return true if the target is unchanged and the player now holds more of it
+     */
+    public boolean acquired(Material assigned, ItemStack[] contents, ItemStack cursor) {
+        return assigned == target && amount(target, contents, cursor) > before;
+    }
+
+    /**
+     * Amount of the item in the inventory contents plus the cursor.
+     */
+    public static int amount(Material type, ItemStack[] contents, ItemStack cursor) {
+        int amount = cursor != null && cursor.getType() == type ? cursor.getAmount() : 0;
+        for (ItemStack stack : contents) {
+            if (stack != null && stack.getType() == type) amount += stack.getAmount();
+        }
+        return amount;
+    }
+}
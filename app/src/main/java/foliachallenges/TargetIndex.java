@@ -0,0 +1,59 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from a material to the players that currently have it as target.
+ * Inventory events use it to reject irrelevant materials with one lookup instead of checking every player.
+ * <p>
+ * The EnumMap gets a set for every item material up front and is never modified structurally afterwards,
+ * so concurrent reads are safe. Only the concurrent sets change.
+ */
+public class TargetIndex {
+
+    private final Map<Material, Set<UUID>> targets = new EnumMap<>(Material.class);
+
+    public TargetIndex() {
+        for (Material m : Material.values()) {
+            if (m.isItem()) targets.put(m, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public boolean isTarget(Material material, UUID player) {
+        Set<UUID> players = targets.get(material);
+        return players != null && !players.isEmpty() && players.contains(player);
+    }
+
+    /**
+     * Moves a player from the previous to the next target. Either may be null.
+     */
+    public void move(UUID player, Material previous, Material next) {
+        if (previous == next) return;
+        if (previous != null) {
+            Set<UUID> players = targets.get(previous);
+            if (players != null) players.remove(player);
+        }
+        if (next != null) {
+            Set<UUID> players = targets.get(next);
+            if (players != null) players.add(player);
+        }
+    }
+
+    public void rebuild(Collection<PlayerChallengeState> states) {
+        clear();
+        for (PlayerChallengeState state : states) {
+            move(state.getUuid(), null, state.getAssignedItem());
+        }
+    }
+
+    public void clear() {
+        targets.values().forEach(Set::clear);
+    }
+}
@@ -0,0 +1,79 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Race mode: one shuffled order of all target candidates, derived from a seed. Every player walks it with their own
+ * cursor, so all players get the same items in the same order and a pick is a single array read.
+ * <p>
+ * The order only depends on the seed and the Minecraft version: {@link #of} shuffles every item in ordinal order, not
+ * the target candidates, so editing obtainability-rules.yml or the blacklist does not change the sequence of a seed.
+ * Items that cannot be drawn are skipped when they come up instead.
+ */
+public final class TargetSequence {
+
+    private final long seed;
+    private final Material[] items;
+    // Position in the sequence by material ordinal, -1 = not part of it
+    private final int[] positions;
+
+    private TargetSequence(long seed, Material[] items) {
+        this.seed = seed;
+        this.items = items;
+        this.positions = new int[Material.values().length];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < items.length; i++) positions[items[i].ordinal()] = i;
+    }
+
+    /**
+     * @return the sequence of this seed over all items
+     */
+    public static TargetSequence of(long seed) {
+        return shuffle(seed, AllItems.ITEMS);
+    }
+
+    public static TargetSequence shuffle(long seed, Material[] candidates) {
+        Material[] items = candidates.clone();
+        // Fisher-Yates; SplittableRandom gives the same numbers for the same seed on every JVM
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = items.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Material swap = items[i];
+            items[i] = items[j];
+            items[j] = swap;
+        }
+        return new TargetSequence(seed, items);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int length() {
+        return items.length;
+    }
+
+    /**
+     * @return the item at this cursor; the sequence starts over after its last item
+     */
+    public Material get(int cursor) {
+        return items[Math.floorMod(cursor, items.length)];
+    }
+
+    /**
+     * @return the cursor right after the item, 0 if the item is not part of the sequence
+     */
+    public int cursorAfter(Material item) {
+        return item != null ? positions[item.ordinal()] + 1 : 0;
+    }
+
+    // Only resolved when the first sequence is built, the item check needs a running server
+    private static final class AllItems {
+        static final Material[] ITEMS = Arrays.stream(Material.values())
+            .filter(m -> !m.isLegacy() && m.isItem())
+            .toArray(Material[]::new);
+    }
+}
@@ -0,0 +1,39 @@
+package foliachallenges;
+
+import java.util.Locale;
+
+/**
+ * Text helpers shared by the HUD, the chat output and the benchmarks.
+ */
+public class TextFormat {
+
+    /**
+     * Turns a material name like {@code DIAMOND_PICKAXE} into {@code Diamond Pickaxe}.
+     */
+    public static String formatItemName(String name) {
+        String[] parts = name.toLowerCase().split("_");
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (sb.length() > 0) sb.append(" ");
+            sb.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Formats seconds as {@code mm:ss}, or {@code hh:mm:ss} from one hour on.
+     */
+    public static String formatTime(long s) {
+        return (s >= 3600) ? String.format("%02d:%02d:%02d", s/3600, (s%3600)/60, s%60) : String.format("%02d:%02d", s/60, s%60);
+    }
+
+    /**
+     * Formats a duration in nanoseconds with a readable unit, e.g. {@code 850ns}, {@code 12.4µs} or {@code 3.21ms}.
+     */
+    public static String formatNanos(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format(Locale.ROOT, "%.1fµs", nanos / 1e3);
+        if (nanos < 1_000_000_000) return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+        return String.format(Locale.ROOT, "%.2fs", nanos / 1e9);
+    }
+}
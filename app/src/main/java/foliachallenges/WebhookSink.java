@@ -0,0 +1,99 @@
+package foliachallenges;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts notifications to a Discord-compatible webhook ({@code {"content": "..."}}).
+ * A batch is joined into as few posts as the content limit allows; connect and request time out after {@code timeout}.
+ * If a later post fails, the messages of the earlier ones are reported as delivered, so they are not posted twice.
+ */
+public class WebhookSink implements NotificationSink {
+
+    // Discord rejects longer content
+    private static final int MAX_CONTENT = 2000;
+
+    private final URI uri;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    public WebhookSink(URI uri, Duration timeout) {
+        this.uri = uri;
+        this.timeout = timeout;
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public void send(List<String> messages) throws IOException {
+        StringBuilder content = new StringBuilder();
+        // Messages in posts that went through, and in the content not posted yet
+        int delivered = 0;
+        int pending = 0;
+        for (String message : messages) {
+            if (content.length() > 0 && content.length() + 1 + message.length() > MAX_CONTENT) {
+                post(content.toString(), delivered);
+                delivered += pending;
+                pending = 0;
+                content.setLength(0);
+            }
+            if (content.length() > 0) content.append('\n');
+            content.append(message, 0, Math.min(message.length(), MAX_CONTENT));
+            pending++;
+        }
+        if (content.length() > 0) post(content.toString(), delivered);
+    }
+
+    @Override
+    public void close() {
+        client.shutdownNow();
+    }
+
+    private void post(String content, int delivered) throws IOException {
+        try {
+            post(content);
+        } catch (IOException e) {
+            if (delivered > 0) throw new PartialDeliveryException(delivered, e);
+            throw e;
+        }
+    }
+
+    private void post(String content) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"content\":\"" + escape(content) + "\"}"))
+            .build();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while posting to the webhook", e);
+        }
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) throw new IOException("Webhook answered with HTTP " + status);
+    }
+
+    static String escape(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
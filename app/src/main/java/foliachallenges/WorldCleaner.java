@@ -0,0 +1,237 @@
+package foliachallenges;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Removes the folders of worlds that were replaced by a reset without holding up the server start.
+ * <p>
+ * On enable the old world, nether and end folders are only renamed into a trash folder next to the worlds,
+ * which is instant on the same file system. The trash is then deleted by a few background threads:
+ * the top levels of every world are split into separate tasks (region, entities, poi, DIM-1, ...), each of which
+ * walks its tree with {@link Files#walkFileTree} and deletes while walking, so no path list is ever built up.
+ * Whatever cannot be deleted stays in the trash and is tried again on the next start.
+ */
+public class WorldCleaner {
+
+    public static final String TRASH_FOLDER = ".foliachallenges-trash";
+
+    // Directories down to this depth below a trashed world become their own task
+    private static final int FAN_OUT_DEPTH = 2;
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Path worldContainer;
+    private final Path trash;
+    private final Logger logger;
+    private final Messages messages;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder deletedFiles = new LongAdder();
+    private final LongAdder deletedBytes = new LongAdder();
+    private final AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+
+    public WorldCleaner(File worldContainer, Logger logger, Messages messages) {
+        this.worldContainer = worldContainer.toPath();
+        this.trash = this.worldContainer.resolve(TRASH_FOLDER);
+        this.logger = logger;
+        this.messages = messages;
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "FoliaChallenges-WorldCleaner-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // The threads are only needed right after a reset
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    private static String[] folders(String worldName) {
+        return new String[] {worldName, worldName + "_nether", worldName + "_the_end"};
+    }
+
+    /**
+     * @return true if the world, nether or end folder still exists in the world container
+     */
+    public boolean hasFolders(String worldName) {
+        for (String folder : folders(worldName)) {
+            if (Files.exists(worldContainer.resolve(folder), LinkOption.NOFOLLOW_LINKS)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Renames the world, nether and end folder into the trash.
+     * @return true if none of the folders is left in the world container
+     */
+    public boolean moveToTrash(String worldName) {
+        boolean moved = true;
+        Path target = trash.resolve(worldName);
+        for (String folder : folders(worldName)) {
+            Path source = worldContainer.resolve(folder);
+            if (!Files.exists(source, LinkOption.NOFOLLOW_LINKS)) continue;
+            try {
+                Files.createDirectories(target);
+                Path destination = target.resolve(folder);
+                if (Files.exists(destination, LinkOption.NOFOLLOW_LINKS)) {
+                    destination = target.resolve(folder + "-" + System.currentTimeMillis());
+                }
+                Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+                logger.info(messages.text("cleanup-deleting-folder", "Deleting inactive world folder: %folder%", "folder", folder));
+            } catch (IOException e) {
+                logger.log(Level.WARNING, messages.text("cleanup-move-failed", "Could not move %folder% to the trash folder", "folder", folder), e);
+                moved = false;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Deletes everything in the trash in the background, including leftovers from earlier starts.
+     * @param onDeleted called from a background thread with the name of every world that is completely gone
+     */
+    public void deleteTrash(Consumer<String> onDeleted) {
+        if (!Files.isDirectory(trash)) return;
+        executor.execute(() -> {
+            List<CompletableFuture<Void>> worlds = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(trash)) {
+                for (Path world : stream) {
+                    worlds.add(deleteWorld(world, onDeleted));
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, messages.text("cleanup-walk-error", "Error walking through directory: %folder%", "folder", trash.toString()), e);
+                return;
+            }
+            // The trash folder itself goes once it is empty; if something is left it is simply kept
+            CompletableFuture.allOf(worlds.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+                try {
+                    Files.deleteIfExists(trash);
+                } catch (IOException ignored) {
+                }
+            });
+        });
+    }
+
+    private CompletableFuture<Void> deleteWorld(Path world, Consumer<String> onDeleted) {
+        String worldName = world.getFileName().toString();
+        long start = System.nanoTime();
+        AtomicInteger failures = new AtomicInteger();
+        return deleteTree(world, 0, failures).whenComplete((v, e) -> {
+            // Interrupted by a shutdown, the rest is deleted on the next start
+            if (executor.isShutdown()) return;
+            if (failures.get() == 0 && e == null && !Files.exists(world, LinkOption.NOFOLLOW_LINKS)) {
+                logger.info(messages.text("cleanup-done", "Deleted old world %world% in %seconds%s", "world", worldName,
+                    "seconds", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)));
+                if (!originalsExist(worldName)) onDeleted.accept(worldName);
+            } else {
+                logger.warning(messages.text("cleanup-delete-failed", "Could not fully delete %world%. It remains in the queue.", "world", worldName));
+            }
+        });
+    }
+
+    private boolean originalsExist(String worldName) {
+        for (String folder : folders(worldName)) {
+            if (Files.exists(worldContainer.resolve(folder), LinkOption.NOFOLLOW_LINKS)) return true;
+        }
+        return false;
+    }
+
+    // Splits the upper levels into parallel tasks, deeper trees are walked by a single task each
+    private CompletableFuture<Void> deleteTree(Path dir, int depth, AtomicInteger failures) {
+        if (depth >= FAN_OUT_DEPTH) {
+            return CompletableFuture.runAsync(() -> walkAndDelete(dir, failures), executor);
+        }
+        List<CompletableFuture<Void>> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                    children.add(deleteTree(child, depth + 1, failures));
+                } else {
+                    delete(child, failures);
+                }
+            }
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            logger.log(Level.WARNING, messages.text("cleanup-walk-error", "Error walking through directory: %folder%", "folder", dir.toString()), e);
+        }
+        return CompletableFuture.allOf(children.toArray(new CompletableFuture[0]))
+            .thenRunAsync(() -> delete(dir, failures), executor);
+    }
+
+    private void walkAndDelete(Path root, AtomicInteger failures) {
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    long size = attrs.size();
+                    if (delete(file, failures)) deletedBytes.add(size);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    failures.incrementAndGet();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) {
+                    delete(dir, failures);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            logger.log(Level.WARNING, messages.text("cleanup-walk-error", "Error walking through directory: %folder%", "folder", root.toString()), e);
+        }
+    }
+
+    private boolean delete(Path path, AtomicInteger failures) {
+        try {
+            Files.delete(path);
+            deletedFiles.increment();
+            logProgress();
+            return true;
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            logger.warning(messages.text("cleanup-delete-path-failed", "Error deleting: %path%", "path", path.toString()));
+            return false;
+        }
+    }
+
+    private void logProgress() {
+        long now = System.nanoTime();
+        long last = lastProgress.get();
+        if (now - last < PROGRESS_INTERVAL_NANOS || !lastProgress.compareAndSet(last, now)) return;
+        logger.info(messages.text("cleanup-progress", "Deleting old worlds: %files% files, %megabytes% MB freed so far",
+            "files", deletedFiles.sum(), "megabytes", deletedBytes.sum() / (1024 * 1024)));
+    }
+
+    /**
+     * Stops deleting; the rest stays in the trash folder for the next start.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,230 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small history in history.yml, for servers without the SQLite driver or with {@code storage.type: yaml}.
+ * Only the number of found items per player and round is kept instead of every find, and queries scan all rounds,
+ * which is fine for a few hundred rounds. The file is held in memory and rewritten on a single background thread.
+ */
+public class YamlStorage implements ChallengeStorage {
+
+    private final Path file;
+    private final Path tempFile;
+    private final Logger logger;
+    // Only touched by the worker thread
+    private final YamlConfiguration data;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "FoliaChallenges-Storage");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean saveScheduled = new AtomicBoolean();
+
+    public YamlStorage(File dataFolder, Logger logger) {
+        this.file = new File(dataFolder, "history.yml").toPath();
+        this.tempFile = new File(dataFolder, "history.yml.tmp").toPath();
+        this.logger = logger;
+        this.data = YamlConfiguration.loadConfiguration(file.toFile());
+    }
+
+    @Override
+    public void roundStarted(String roundId, String session, long startedAt, long durationSeconds, Long raceSeed) {
+        write(() -> {
+            String path = "rounds." + roundId;
+            if (data.contains(path)) return;
+            data.set(path + ".session", session);
+            data.set(path + ".startedAt", startedAt);
+            data.set(path + ".durationSeconds", durationSeconds);
+            data.set(path + ".raceSeed", raceSeed);
+        });
+    }
+
+    @Override
+    public void itemFound(String roundId, UUID player, Material item, long foundAt, long searchMillis) {
+        write(() -> {
+            String path = "rounds." + roundId + ".finds." + player;
+            data.set(path, data.getInt(path) + 1);
+            if (searchMillis < 0) return;
+            // Only totals per item, enough for the average
+            String itemPath = "search-times." + item.name();
+            data.set(itemPath + ".finds", data.getLong(itemPath + ".finds") + 1);
+            data.set(itemPath + ".millis", data.getLong(itemPath + ".millis") + searchMillis);
+        });
+    }
+
+    @Override
+    public void roundFinished(String roundId, long endedAt, boolean completed, List<PlayerResult> results) {
+        write(() -> {
+            String path = "rounds." + roundId;
+            data.set(path + ".endedAt", endedAt);
+            data.set(path + ".completed", completed);
+            for (PlayerResult result : results) {
+                String resultPath = path + ".results." + result.getUuid();
+                data.set(resultPath + ".name", result.getName());
+                data.set(resultPath + ".score", result.getScore());
+                data.set(resultPath + ".place", result.getRank());
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<RoundSummary>> recentRounds(String session, int limit) {
+        return query(() -> {
+            List<RoundSummary> rounds = new ArrayList<>();
+            for (ConfigurationSection round : rounds()) {
+                if (!session.equals(round.getString("session")) || !round.contains("endedAt")) continue;
+                String winner = null;
+                int winnerScore = 0;
+                ConfigurationSection results = round.getConfigurationSection("results");
+                int players = results != null ? results.getKeys(false).size() : 0;
+                if (results != null) {
+                    for (String uuid : results.getKeys(false)) {
+                        ConfigurationSection result = results.getConfigurationSection(uuid);
+                        if (result.getInt("place") == 1 && result.getInt("score") > 0) {
+                            winner = result.getString("name");
+                            winnerScore = result.getInt("score");
+                        }
+                    }
+                }
+                rounds.add(new RoundSummary(round.getName(), round.getLong("startedAt"), round.getLong("endedAt"),
+                    round.getBoolean("completed"), players, winner, winnerScore));
+            }
+            rounds.sort(Comparator.comparingLong(RoundSummary::getStartedAt).reversed());
+            return rounds.size() > limit ? new ArrayList<>(rounds.subList(0, limit)) : rounds;
+        });
+    }
+
+    @Override
+    public CompletableFuture<PlayerStats> playerStats(String playerName) {
+        return query(() -> {
+            String uuid = null;
+            String name = null;
+            int roundCount = 0;
+            int wins = 0;
+            long items = 0;
+            int best = 0;
+            for (ConfigurationSection round : rounds()) {
+                ConfigurationSection results = round.getConfigurationSection("results");
+                if (results == null) continue;
+                for (String key : results.getKeys(false)) {
+                    ConfigurationSection result = results.getConfigurationSection(key);
+                    if (uuid == null && playerName.equalsIgnoreCase(result.getString("name"))) {
+                        uuid = key;
+                        name = result.getString("name");
+                    }
+                    if (!key.equals(uuid)) continue;
+                    roundCount++;
+                    int score = result.getInt("score");
+                    if (result.getInt("place") == 1 && score > 0 && round.getBoolean("completed")) wins++;
+                    best = Math.max(best, score);
+                }
+            }
+            if (uuid == null) return null;
+            for (ConfigurationSection round : rounds()) {
+                items += round.getInt("finds." + uuid);
+            }
+            return new PlayerStats(name, roundCount, wins, items, best);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<Material, SearchTime>> searchTimes() {
+        return query(() -> {
+            Map<Material, SearchTime> times = new EnumMap<>(Material.class);
+            ConfigurationSection section = data.getConfigurationSection("search-times");
+            if (section == null) return times;
+            for (String key : section.getKeys(false)) {
+                Material item = Material.getMaterial(key);
+                long finds = section.getLong(key + ".finds");
+                if (item != null && finds > 0) times.put(item, new SearchTime(finds, section.getLong(key + ".millis") / finds));
+            }
+            return times;
+        });
+    }
+
+    private List<ConfigurationSection> rounds() {
+        List<ConfigurationSection> rounds = new ArrayList<>();
+        ConfigurationSection section = data.getConfigurationSection("rounds");
+        if (section == null) return rounds;
+        for (String id : section.getKeys(false)) {
+            ConfigurationSection round = section.getConfigurationSection(id);
+            if (round != null) rounds.add(round);
+        }
+        return rounds;
+    }
+
+    private void write(Runnable change) {
+        try {
+            worker.execute(change);
+        } catch (RejectedExecutionException e) {
+            return;
+        }
+        // Changes queued before the save are part of it, later ones schedule the next save
+        if (saveScheduled.compareAndSet(false, true)) {
+            try {
+                worker.execute(this::save);
+            } catch (RejectedExecutionException e) {
+                saveScheduled.set(false);
+            }
+        }
+    }
+
+    private <T> CompletableFuture<T> query(Supplier<T> query) {
+        try {
+            return CompletableFuture.supplyAsync(query, worker);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void save() {
+        saveScheduled.set(false);
+        try {
+            Files.writeString(tempFile, data.saveToString(), StandardCharsets.UTF_8);
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not save history.yml", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) logger.warning("History writes did not finish within 10 seconds");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
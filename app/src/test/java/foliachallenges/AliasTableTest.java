@@ -0,0 +1,52 @@
+package foliachallenges;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AliasTableTest {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    void drawsFollowTheWeights() {
+        double[] weights = {3, 3, 2, 1, 0};
+        AliasTable table = AliasTable.build(weights);
+        assertNotNull(table);
+
+        int[] counts = new int[weights.length];
+        Random random = new Random(42);
+        for (int i = 0; i < DRAWS; i++) counts[table.sample(random)]++;
+
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / 9, counts[i] / (double) DRAWS, 0.005, "share of column " + i);
+        }
+        assertEquals(0, counts[4], "a column without weight is never drawn");
+    }
+
+    @Test
+    void sameSeedGivesTheSameDraws() {
+        AliasTable table = AliasTable.build(new double[] {5, 1, 1, 3});
+        Random first = new Random(7);
+        Random second = new Random(7);
+        for (int i = 0; i < 1000; i++) assertEquals(table.sample(first), table.sample(second));
+    }
+
+    @Test
+    void noPositiveWeightGivesNoTable() {
+        assertNull(AliasTable.build(new double[0]));
+        assertNull(AliasTable.build(new double[] {0, 0, 0}));
+        assertNull(AliasTable.build(new double[] {-1, 0}));
+    }
+
+    @Test
+    void singleWeightedColumnIsAlwaysDrawn() {
+        AliasTable table = AliasTable.build(new double[] {0, 0, 4, 0});
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) assertEquals(2, table.sample(random));
+    }
+}
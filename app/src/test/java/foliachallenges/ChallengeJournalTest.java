@@ -0,0 +1,170 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ChallengeJournalTest {
+
+    private static final UUID PLAYER = new UUID(1, 2);
+
+    @TempDir
+    Path folder;
+
+    @Test
+    void replayAppliesEveryRecordAndRestoresTheSequence() throws IOException {
+        Path file = folder.resolve("data.journal");
+        ChallengeJournal journal = new ChallengeJournal(file);
+        journal.append(journal.itemAssigned(PLAYER, Material.STONE));
+        journal.append(journal.itemFound(PLAYER, Material.STONE, 1));
+        journal.append(journal.jokerUsed(PLAYER, 2));
+        journal.append(journal.timerRemaining(90_000));
+        journal.close();
+
+        ChallengeJournal reopened = new ChallengeJournal(file);
+        List<String> events = new ArrayList<>();
+        assertEquals(4, reopened.replay(0, recorder(events)));
+        assertEquals(List.of("assigned STONE", "found STONE 1", "joker 2", "timer 90000"), events);
+        assertEquals(4, reopened.nextSequence());
+        assertEquals(4, reopened.size());
+    }
+
+    @Test
+    void replaySkipsRecordsCoveredBySnapshot() throws IOException {
+        Path file = folder.resolve("data.journal");
+        ChallengeJournal journal = new ChallengeJournal(file);
+        for (int score = 1; score <= 5; score++) journal.append(journal.itemFound(PLAYER, Material.DIRT, score));
+        journal.close();
+
+        ChallengeJournal reopened = new ChallengeJournal(file);
+        List<String> events = new ArrayList<>();
+        assertEquals(2, reopened.replay(3, recorder(events)));
+        assertEquals(List.of("found DIRT 4", "found DIRT 5"), events);
+        assertEquals(5, reopened.nextSequence());
+    }
+
+    @Test
+    void tornTailIsCutOff() throws IOException {
+        Path file = folder.resolve("data.journal");
+        ChallengeJournal journal = new ChallengeJournal(file);
+        journal.append(journal.itemFound(PLAYER, Material.STONE, 1));
+        journal.append(journal.itemFound(PLAYER, Material.DIRT, 2));
+        journal.close();
+        long intact = Files.size(file);
+
+        // Crash in the middle of an append: only the first bytes of the record made it to disk
+        byte[] torn = journal.itemFound(PLAYER, Material.DIAMOND, 3);
+        appendBytes(file, torn, 10);
+
+        ChallengeJournal reopened = new ChallengeJournal(file);
+        List<String> events = new ArrayList<>();
+        assertEquals(2, reopened.replay(0, recorder(events)));
+        assertEquals(List.of("found STONE 1", "found DIRT 2"), events);
+        assertEquals(intact, Files.size(file));
+        // The torn record is gone, its sequence number is handed out again
+        assertEquals(2, reopened.nextSequence());
+    }
+
+    @Test
+    void recordWithWrongChecksumEndsTheReplay() throws IOException {
+        Path file = folder.resolve("data.journal");
+        ChallengeJournal journal = new ChallengeJournal(file);
+        journal.append(journal.itemFound(PLAYER, Material.STONE, 1));
+        long intact = Files.size(file);
+        journal.append(journal.itemFound(PLAYER, Material.DIRT, 2));
+        journal.append(journal.itemFound(PLAYER, Material.DIAMOND, 3));
+        journal.close();
+
+        // Flip a payload byte of the second record, everything from there on is dropped
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) intact + 20] ^= 0x55;
+        Files.write(file, bytes);
+
+        ChallengeJournal reopened = new ChallengeJournal(file);
+        List<String> events = new ArrayList<>();
+        assertEquals(1, reopened.replay(0, recorder(events)));
+        assertEquals(List.of("found STONE 1"), events);
+        assertEquals(intact, Files.size(file));
+        assertEquals(1, reopened.nextSequence());
+    }
+
+    @Test
+    void compactKeepsOnlyRecordsAfterTheSnapshot() throws IOException {
+        Path file = folder.resolve("data.journal");
+        ChallengeJournal journal = new ChallengeJournal(file);
+        List<byte[]> records = new ArrayList<>();
+        for (int score = 1; score <= 5; score++) {
+            byte[] record = journal.itemFound(PLAYER, Material.DIRT, score);
+            records.add(record);
+            journal.append(record);
+        }
+        journal.compact(3);
+        assertEquals(2, journal.size());
+        assertEquals(records.get(3).length + records.get(4).length, Files.size(file));
+
+        // Appending continues after the compacted records
+        journal.append(journal.itemFound(PLAYER, Material.DIRT, 6));
+        journal.close();
+
+        ChallengeJournal reopened = new ChallengeJournal(file);
+        List<String> events = new ArrayList<>();
+        assertEquals(3, reopened.replay(0, recorder(events)));
+        assertEquals(List.of("found DIRT 4", "found DIRT 5", "found DIRT 6"), events);
+        assertEquals(6, reopened.nextSequence());
+    }
+
+    @Test
+    void compactOfEverythingDeletesTheFile() throws IOException {
+        Path file = folder.resolve("data.journal");
+        ChallengeJournal journal = new ChallengeJournal(file);
+        journal.append(journal.itemFound(PLAYER, Material.STONE, 1));
+        journal.append(journal.jokerUsed(PLAYER, 0));
+        journal.compact(journal.nextSequence());
+
+        assertFalse(Files.exists(file));
+        assertEquals(0, journal.size());
+        assertEquals(0, new ChallengeJournal(file).replay(0, recorder(new ArrayList<>())));
+    }
+
+    private static void appendBytes(Path file, byte[] bytes, int count) throws IOException {
+        byte[] existing = Files.readAllBytes(file);
+        byte[] combined = new byte[existing.length + count];
+        System.arraycopy(existing, 0, combined, 0, existing.length);
+        System.arraycopy(bytes, 0, combined, existing.length, count);
+        Files.write(file, combined);
+    }
+
+    private static ChallengeJournal.Visitor recorder(List<String> events) {
+        return new ChallengeJournal.Visitor() {
+            @Override
+            public void itemFound(UUID player, Material item, int score) {
+                events.add("found " + item + " " + score);
+            }
+
+            @Override
+            public void itemAssigned(UUID player, Material item) {
+                events.add("assigned " + item);
+            }
+
+            @Override
+            public void jokerUsed(UUID player, int remainingJokers) {
+                events.add("joker " + remainingJokers);
+            }
+
+            @Override
+            public void timerRemaining(long remainingMillis) {
+                events.add("timer " + remainingMillis);
+            }
+        };
+    }
+}
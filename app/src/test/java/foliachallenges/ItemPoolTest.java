@@ -0,0 +1,80 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemPoolTest {
+
+    private static final Material[] CANDIDATES = {Material.STONE, Material.DIRT, Material.DIAMOND};
+    private static final int DRAWS = 100_000;
+
+    @Test
+    void weightedDrawsFollowTheTierWeights() {
+        ItemPool pool = new ItemPool();
+        pool.rebuild(CANDIDATES, Set.of());
+        pool.setWeights(weights(Map.of(Material.STONE, 3.0, Material.DIRT, 1.0)));
+
+        Map<Material, Integer> counts = draw(pool);
+        assertEquals(0.75, counts.getOrDefault(Material.STONE, 0) / (double) DRAWS, 0.01);
+        assertEquals(0.25, counts.getOrDefault(Material.DIRT, 0) / (double) DRAWS, 0.01);
+        assertFalse(counts.containsKey(Material.DIAMOND), "items outside the selected tiers are not drawn");
+        assertFalse(pool.isDrawable(Material.DIAMOND));
+    }
+
+    @Test
+    void blacklistingEveryWeightedItemFallsBackToUniform() {
+        ItemPool pool = new ItemPool();
+        pool.rebuild(CANDIDATES, Set.of(Material.STONE));
+        // Only STONE is in the selected tiers, and it is blacklisted
+        pool.setWeights(weights(Map.of(Material.STONE, 1.0)));
+
+        Map<Material, Integer> counts = draw(pool);
+        assertFalse(counts.containsKey(Material.STONE));
+        assertEquals(0.5, counts.getOrDefault(Material.DIRT, 0) / (double) DRAWS, 0.01);
+        assertEquals(0.5, counts.getOrDefault(Material.DIAMOND, 0) / (double) DRAWS, 0.01);
+        assertTrue(pool.isDrawable(Material.DIRT));
+    }
+
+    @Test
+    void removedItemIsNeverDrawnAgain() {
+        ItemPool pool = new ItemPool();
+        pool.rebuild(CANDIDATES, Set.of());
+        pool.setWeights(weights(Map.of(Material.STONE, 100.0, Material.DIRT, 1.0)));
+        assertTrue(pool.remove(Material.STONE));
+
+        for (int i = 0; i < 1000; i++) assertNotEquals(Material.STONE, pool.sample());
+        assertEquals(2, pool.size());
+    }
+
+    @Test
+    void nullWeightsDrawUniformly() {
+        ItemPool pool = new ItemPool();
+        pool.rebuild(CANDIDATES, Set.of());
+        pool.setWeights(weights(Map.of(Material.STONE, 1.0)));
+        pool.setWeights(null);
+
+        Map<Material, Integer> counts = draw(pool);
+        for (Material item : CANDIDATES) assertEquals(1 / 3.0, counts.getOrDefault(item, 0) / (double) DRAWS, 0.01);
+    }
+
+    private static double[] weights(Map<Material, Double> byItem) {
+        double[] weights = new double[Material.values().length];
+        byItem.forEach((item, weight) -> weights[item.ordinal()] = weight);
+        return weights;
+    }
+
+    private static Map<Material, Integer> draw(ItemPool pool) {
+        Map<Material, Integer> counts = new EnumMap<>(Material.class);
+        for (int i = 0; i < DRAWS; i++) counts.merge(pool.sample(), 1, Integer::sum);
+        return counts;
+    }
+}
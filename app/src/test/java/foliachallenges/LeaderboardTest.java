@@ -0,0 +1,117 @@
+package foliachallenges;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+    private static final UUID A = new UUID(0, 1);
+    private static final UUID B = new UUID(0, 2);
+    private static final UUID C = new UUID(0, 3);
+    private static final UUID D = new UUID(0, 4);
+
+    @Test
+    void rankCountsPlayersWithHigherScore() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 5);
+        leaderboard.update(B, 9);
+        leaderboard.update(C, 1);
+
+        assertEquals(2, leaderboard.rank(A));
+        assertEquals(1, leaderboard.rank(B));
+        assertEquals(3, leaderboard.rank(C));
+        assertEquals(0, leaderboard.rank(D));
+    }
+
+    @Test
+    void tiedPlayersShareTheirRank() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 7);
+        leaderboard.update(B, 7);
+        leaderboard.update(C, 3);
+        leaderboard.update(D, 7);
+
+        assertEquals(1, leaderboard.rank(A));
+        assertEquals(1, leaderboard.rank(B));
+        assertEquals(1, leaderboard.rank(D));
+        // Competition ranking: three players are ahead, rank 2 and 3 are skipped
+        assertEquals(4, leaderboard.rank(C));
+        // Ties are ordered by UUID, so the order is stable between renders
+        assertEquals(List.of(A, B, D, C), uuids(leaderboard.entries()));
+    }
+
+    @Test
+    void updateMovesThePlayer() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 2);
+        leaderboard.update(B, 4);
+        leaderboard.update(A, 6);
+
+        assertEquals(1, leaderboard.rank(A));
+        assertEquals(2, leaderboard.rank(B));
+        assertEquals(6, leaderboard.getScore(A));
+        assertEquals(List.of(A, B), uuids(leaderboard.entries()));
+    }
+
+    @Test
+    void zeroScoreRemovesThePlayer() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 3);
+        leaderboard.update(B, 5);
+        leaderboard.update(B, 0);
+
+        assertEquals(0, leaderboard.rank(B));
+        assertEquals(0, leaderboard.getScore(B));
+        assertEquals(1, leaderboard.rank(A));
+        assertEquals(List.of(A), uuids(leaderboard.entries()));
+
+        leaderboard.update(A, 0);
+        assertTrue(leaderboard.isEmpty());
+    }
+
+    @Test
+    void scoresBeyondTheInitialTreeSize() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 10);
+        leaderboard.update(B, 500);
+        leaderboard.update(C, 64);
+
+        assertEquals(1, leaderboard.rank(B));
+        assertEquals(2, leaderboard.rank(C));
+        assertEquals(3, leaderboard.rank(A));
+    }
+
+    @Test
+    void topIsLimitedAndBestFirst() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 1);
+        leaderboard.update(B, 3);
+        leaderboard.update(C, 2);
+
+        assertEquals(List.of(B, C), uuids(leaderboard.top(2)));
+        assertEquals(3, leaderboard.top(10).size());
+    }
+
+    @Test
+    void clearResetsRanksAndBumpsTheVersion() {
+        Leaderboard leaderboard = new Leaderboard();
+        leaderboard.update(A, 4);
+        long version = leaderboard.getVersion();
+        leaderboard.clear();
+
+        assertTrue(leaderboard.getVersion() > version);
+        assertTrue(leaderboard.isEmpty());
+        assertEquals(0, leaderboard.rank(A));
+        leaderboard.update(B, 2);
+        assertEquals(1, leaderboard.rank(B));
+    }
+
+    private static List<UUID> uuids(List<Leaderboard.Entry> entries) {
+        return entries.stream().map(Leaderboard.Entry::getUuid).toList();
+    }
+}
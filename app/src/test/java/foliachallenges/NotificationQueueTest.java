@@ -0,0 +1,164 @@
+package foliachallenges;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationQueueTest {
+
+    private static final Logger LOGGER = Logger.getLogger("NotificationQueueTest");
+    private static final long BATCH_DELAY = 50;
+    private static final long BACKOFF = 100;
+
+    @TempDir
+    Path folder;
+
+    private final List<WebhookStub> stubs = new ArrayList<>();
+    private final List<NotificationQueue> queues = new ArrayList<>();
+    private final Metrics metrics = new Metrics();
+
+    @AfterEach
+    void close() {
+        queues.forEach(NotificationQueue::shutdown);
+        stubs.forEach(WebhookStub::close);
+    }
+
+    @Test
+    void identicalMessagesAreCoalescedIntoOneBatch() throws Exception {
+        WebhookStub stub = stub();
+        NotificationQueue queue = queue(sink(stub), 20);
+        queue.offer("blocked STONE");
+        queue.offer("blocked DIRT");
+        queue.offer("blocked STONE");
+
+        stub.awaitRequests(1);
+        assertEquals(List.of("blocked STONE (x2)\nblocked DIRT"), stub.contents());
+        WebhookStub.await(() -> counter("notifications_sent") == 2);
+        assertEquals(1, counter("notifications_coalesced"));
+    }
+
+    @Test
+    void maxBatchLimitsMessagesPerRun() throws Exception {
+        WebhookStub stub = stub();
+        NotificationQueue queue = queue(sink(stub), 2);
+        queue.offer("a");
+        queue.offer("b");
+        queue.offer("c");
+
+        stub.awaitRequests(2);
+        assertEquals(List.of("a\nb", "c"), stub.contents());
+    }
+
+    @Test
+    void failedBatchIsRetriedWithGrowingBackoff() throws Exception {
+        WebhookStub stub = stub().respond(503, 503);
+        NotificationQueue queue = queue(sink(stub), 20);
+        queue.offer("a");
+
+        stub.awaitRequests(3);
+        assertEquals(List.of("a", "a", "a"), stub.contents());
+        assertTrue(stub.millisBetween(0, 1) >= BACKOFF, "first retry after the initial backoff");
+        assertTrue(stub.millisBetween(1, 2) >= 2 * BACKOFF, "second retry after twice the backoff");
+        WebhookStub.await(() -> counter("notifications_sent") == 1);
+        assertEquals(2, counter("notifications_failed_batches"));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void deliveredPartOfABatchIsNotSentAgain() throws Exception {
+        String first = "1".repeat(1500);
+        String second = "2".repeat(1500);
+        WebhookStub stub = stub().respond(204, 500);
+        NotificationQueue queue = queue(sink(stub), 20);
+        queue.offer(first);
+        queue.offer(second);
+
+        stub.awaitRequests(3);
+        Thread.sleep(BACKOFF * 3);
+        assertEquals(List.of(first, second, second), stub.contents());
+        assertEquals(2, counter("notifications_sent"));
+    }
+
+    @Test
+    void spillOfTheLastShutdownIsLoadedWhenTheQueueIsBuilt() throws Exception {
+        WebhookStub down = stub().failAlways();
+        NotificationQueue stopped = queue(sink(down), 20);
+        stopped.offer("left over");
+        down.awaitRequests(1);
+        stopped.shutdown();
+        queues.remove(stopped);
+        assertTrue(Files.exists(spillFile()));
+
+        WebhookStub up = stub();
+        NotificationQueue queue = queue(sink(up), 20);
+        // Loaded right away, not only once something new is offered
+        assertEquals(1, queue.size());
+        up.awaitRequests(1);
+        assertEquals(List.of("left over"), up.contents());
+        WebhookStub.await(() -> !Files.exists(spillFile()));
+    }
+
+    @Test
+    void reconfigureSendsPendingMessagesToTheNewSinkAndClosesTheOldOne() throws Exception {
+        WebhookStub down = stub().failAlways();
+        AtomicInteger closed = new AtomicInteger();
+        WebhookSink downSink = sink(down);
+        NotificationSink old = new NotificationSink() {
+            @Override
+            public void send(List<String> messages) throws IOException {
+                downSink.send(messages);
+            }
+
+            @Override
+            public void close() {
+                closed.incrementAndGet();
+                downSink.close();
+            }
+        };
+        NotificationQueue queue = queue(old, 20);
+        queue.offer("during reload");
+        down.awaitRequests(1);
+
+        WebhookStub up = stub();
+        queue.reconfigure(sink(up), 1000, 20, BATCH_DELAY);
+        assertEquals(1, closed.get());
+        up.awaitRequests(1);
+        assertEquals(List.of("during reload"), up.contents());
+    }
+
+    private NotificationQueue queue(NotificationSink sink, int maxBatch) {
+        NotificationQueue queue = new NotificationQueue(sink, spillFile(), LOGGER, metrics, 1000, maxBatch, BATCH_DELAY, BACKOFF);
+        queues.add(queue);
+        return queue;
+    }
+
+    private Path spillFile() {
+        return folder.resolve("notifications-spill.txt");
+    }
+
+    private long counter(String name) {
+        return metrics.getCounters().get(name).sum();
+    }
+
+    private WebhookStub stub() throws IOException {
+        WebhookStub stub = new WebhookStub();
+        stubs.add(stub);
+        return stub;
+    }
+
+    private static WebhookSink sink(WebhookStub stub) {
+        return new WebhookSink(stub.uri(), Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,125 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeenItemsTest {
+
+    private static final Material[] MATERIALS = Material.values();
+    private static final Material FIRST = MATERIALS[0];
+    private static final Material LAST = MATERIALS[MATERIALS.length - 1];
+
+    @Test
+    void addReportsOnlyNewItems() {
+        SeenItems seen = new SeenItems();
+        assertTrue(seen.isEmpty());
+        assertTrue(seen.add(Material.DIAMOND));
+        assertFalse(seen.add(Material.DIAMOND));
+        assertTrue(seen.contains(Material.DIAMOND));
+        assertFalse(seen.contains(Material.STONE));
+        assertEquals(1, seen.count());
+        assertFalse(seen.isEmpty());
+    }
+
+    @Test
+    void firstAndLastOrdinalUseTheirOwnBits() {
+        SeenItems seen = new SeenItems();
+        seen.add(FIRST);
+        seen.add(LAST);
+        assertEquals(2, seen.count());
+        assertTrue(seen.contains(FIRST));
+        assertTrue(seen.contains(LAST));
+        assertFalse(seen.contains(MATERIALS[1]));
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        SeenItems seen = new SeenItems();
+        for (Material material : MATERIALS) seen.add(material);
+        assertEquals(SeenItems.materialCount(), seen.count());
+        seen.clear();
+        assertTrue(seen.isEmpty());
+        assertEquals(0, seen.count());
+    }
+
+    @Test
+    void base64RoundTrip() {
+        SeenItems seen = new SeenItems();
+        seen.add(FIRST);
+        seen.add(Material.DIAMOND);
+        seen.add(LAST);
+
+        SeenItems loaded = new SeenItems();
+        loaded.add(Material.STONE);
+        loaded.load(seen.toBase64());
+        assertEquals(3, loaded.count());
+        assertTrue(loaded.contains(FIRST));
+        assertTrue(loaded.contains(Material.DIAMOND));
+        assertTrue(loaded.contains(LAST));
+        assertFalse(loaded.contains(Material.STONE), "load replaces the content");
+        assertEquals(seen.toBase64(), loaded.toBase64());
+    }
+
+    @Test
+    void loadDropsBitsBeyondTheMaterials() {
+        int words = (SeenItems.materialCount() + 63) / 64;
+        byte[] allSet = new byte[(words + 1) * Long.BYTES];
+        Arrays.fill(allSet, (byte) 0xFF);
+
+        SeenItems seen = new SeenItems();
+        seen.load(Base64.getEncoder().encodeToString(allSet));
+        assertEquals(SeenItems.materialCount(), seen.count());
+    }
+
+    @Test
+    void shortStringLeavesTheRestEmpty() {
+        byte[] firstWord = new byte[Long.BYTES];
+        firstWord[0] = 1;
+
+        SeenItems seen = new SeenItems();
+        seen.add(LAST);
+        seen.load(Base64.getEncoder().encodeToString(firstWord));
+        assertEquals(1, seen.count());
+        assertTrue(seen.contains(FIRST));
+    }
+
+    @Test
+    void invalidBase64IsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new SeenItems().load("not base64!"));
+    }
+
+    @Test
+    void snapshotKeepsTheBitsOfPlayersThatSawItems() throws InvalidConfigurationException {
+        PlayerChallengeState active = new PlayerChallengeState(UUID.randomUUID());
+        active.getSeenItems().add(Material.DIAMOND);
+        active.getSeenItems().add(LAST);
+        PlayerChallengeState idle = new PlayerChallengeState(UUID.randomUUID());
+
+        ChallengeSnapshot snapshot = new ChallengeSnapshot(60_000, 60, "round", null, List.of(active, idle), Map.of(), 3);
+        YamlConfiguration data = new YamlConfiguration();
+        data.loadFromString(snapshot.toYaml(0));
+
+        assertEquals(SeenItems.materialCount(), data.getInt("seenItemsMaterials"));
+        Map<String, Object> bits = data.getConfigurationSection("seenItems").getValues(false);
+        assertEquals(1, bits.size(), "empty bitsets are not written");
+
+        SeenItems loaded = new SeenItems();
+        loaded.load((String) bits.get(active.getUuid().toString()));
+        assertEquals(2, loaded.count());
+        assertTrue(loaded.contains(Material.DIAMOND));
+        assertTrue(loaded.contains(LAST));
+    }
+}
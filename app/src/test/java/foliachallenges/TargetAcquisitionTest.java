@@ -0,0 +1,49 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TargetAcquisitionTest {
+
+    @Test
+    void amountCountsInventoryAndCursor() {
+        ItemStack[] contents = {new ItemStack(Material.DIAMOND, 3), null, new ItemStack(Material.STONE, 64), new ItemStack(Material.DIAMOND, 2)};
+        assertEquals(5, TargetAcquisition.amount(Material.DIAMOND, contents, null));
+        assertEquals(6, TargetAcquisition.amount(Material.DIAMOND, contents, new ItemStack(Material.DIAMOND)));
+        assertEquals(0, TargetAcquisition.amount(Material.PAPER, contents, new ItemStack(Material.STONE)));
+    }
+
+    @Test
+    void movingAnAlreadyHeldStackDoesNotCount() {
+        ItemStack[] before = {new ItemStack(Material.DIAMOND, 4), null};
+        TargetAcquisition check = TargetAcquisition.before(Material.DIAMOND, before, null);
+
+        // Picked up onto the cursor, then placed in another slot
+        assertFalse(check.acquired(Material.DIAMOND, new ItemStack[]{null, null}, new ItemStack(Material.DIAMOND, 4)));
+        assertFalse(check.acquired(Material.DIAMOND, new ItemStack[]{null, new ItemStack(Material.DIAMOND, 4)}, null));
+        // Put into a chest
+        assertFalse(check.acquired(Material.DIAMOND, new ItemStack[]{null, null}, null));
+    }
+
+    @Test
+    void takingMoreOfTheTargetCounts() {
+        TargetAcquisition check = TargetAcquisition.before(Material.DIAMOND, new ItemStack[]{new ItemStack(Material.DIAMOND, 4)}, null);
+        assertTrue(check.acquired(Material.DIAMOND, new ItemStack[]{new ItemStack(Material.DIAMOND, 4)}, new ItemStack(Material.DIAMOND)));
+
+        TargetAcquisition empty = TargetAcquisition.before(Material.PAPER, new ItemStack[]{null}, null);
+        assertTrue(empty.acquired(Material.PAPER, new ItemStack[]{new ItemStack(Material.PAPER)}, null));
+    }
+
+    @Test
+    void checkForAReassignedTargetIsDropped() {
+        TargetAcquisition check = TargetAcquisition.before(Material.DIAMOND, new ItemStack[]{null}, null);
+        // A check queued earlier in the same tick already scored and assigned PAPER
+        assertFalse(check.acquired(Material.PAPER, new ItemStack[]{new ItemStack(Material.DIAMOND)}, null));
+        assertFalse(check.acquired(null, new ItemStack[]{new ItemStack(Material.DIAMOND)}, null));
+    }
+}
@@ -0,0 +1,43 @@
+package foliachallenges;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TargetSequenceTest {
+
+    private static final Material[] ITEMS = {Material.STONE, Material.DIRT, Material.DIAMOND, Material.PAPER, Material.CHEST, Material.CLOCK};
+
+    @Test
+    void sameSeedGivesTheSameOrder() {
+        assertEquals(order(TargetSequence.shuffle(42, ITEMS)), order(TargetSequence.shuffle(42, ITEMS.clone())));
+        assertNotEquals(order(TargetSequence.shuffle(42, ITEMS)), order(TargetSequence.shuffle(43, ITEMS)));
+    }
+
+    @Test
+    void everyItemAppearsOnceAndTheSequenceWraps() {
+        TargetSequence sequence = TargetSequence.shuffle(7, ITEMS);
+        List<Material> order = order(sequence);
+        assertEquals(ITEMS.length, order.stream().distinct().count());
+        assertEquals(sequence.get(0), sequence.get(ITEMS.length));
+    }
+
+    @Test
+    void cursorContinuesAfterTheCurrentTarget() {
+        TargetSequence sequence = TargetSequence.shuffle(7, ITEMS);
+        for (int i = 0; i < ITEMS.length; i++) assertEquals(i + 1, sequence.cursorAfter(sequence.get(i)));
+        assertEquals(0, sequence.cursorAfter(Material.COMPASS));
+        assertEquals(0, sequence.cursorAfter(null));
+    }
+
+    private static List<Material> order(TargetSequence sequence) {
+        List<Material> order = new ArrayList<>();
+        for (int i = 0; i < sequence.length(); i++) order.add(sequence.get(i));
+        return order;
+    }
+}
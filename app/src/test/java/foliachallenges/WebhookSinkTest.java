@@ -0,0 +1,71 @@
+package foliachallenges;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class WebhookSinkTest {
+
+    private final WebhookStub stub = stub();
+    private final WebhookSink sink = new WebhookSink(stub.uri(), Duration.ofSeconds(5));
+
+    @AfterEach
+    void close() {
+        sink.close();
+        stub.close();
+    }
+
+    @Test
+    void batchIsJoinedIntoOnePost() throws IOException {
+        sink.send(List.of("first", "with \"quotes\""));
+
+        assertEquals(List.of("{\"content\":\"first\\nwith \\\"quotes\\\"\"}"), stub.bodies());
+    }
+
+    @Test
+    void contentLimitSplitsTheBatch() throws IOException {
+        String message = "x".repeat(1500);
+        sink.send(List.of(message, message, message));
+
+        assertEquals(List.of(message, message, message), stub.contents());
+    }
+
+    @Test
+    void failedLaterPostReportsTheDeliveredMessages() {
+        String message = "x".repeat(1500);
+        stub.respond(204, 500);
+
+        NotificationSink.PartialDeliveryException e = assertThrows(NotificationSink.PartialDeliveryException.class,
+            () -> sink.send(List.of(message, message, message)));
+        assertEquals(1, e.getDelivered());
+        assertEquals(2, stub.requests());
+    }
+
+    @Test
+    void failedFirstPostDeliveredNothing() {
+        stub.respond(500);
+
+        IOException e = assertThrows(IOException.class, () -> sink.send(List.of("first")));
+        assertFalse(e instanceof NotificationSink.PartialDeliveryException);
+    }
+
+    @Test
+    void controlCharactersAreEscaped() {
+        assertEquals("a\\tb\\\\c\\u0001", WebhookSink.escape("a\tb\\c\u0001"));
+    }
+
+    private static WebhookStub stub() {
+        try {
+            return new WebhookStub();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
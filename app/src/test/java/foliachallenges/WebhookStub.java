@@ -0,0 +1,108 @@
+package foliachallenges;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Local HTTP endpoint standing in for a webhook. Records every posted body with its arrival time and answers with
+ * the queued status codes, 204 once they are used up.
+ */
+final class WebhookStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> bodies = new ArrayList<>();
+    private final List<Long> arrivals = new ArrayList<>();
+    private final Deque<Integer> statuses = new ArrayDeque<>();
+    private int defaultStatus = 204;
+
+    WebhookStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            int status;
+            synchronized (this) {
+                bodies.add(body);
+                arrivals.add(System.nanoTime());
+                status = statuses.isEmpty() ? defaultStatus : statuses.poll();
+            }
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/webhook");
+    }
+
+    /**
+     * Answers the next requests with these status codes.
+     */
+    synchronized WebhookStub respond(Integer... codes) {
+        statuses.addAll(List.of(codes));
+        return this;
+    }
+
+    synchronized WebhookStub failAlways() {
+        defaultStatus = 500;
+        return this;
+    }
+
+    synchronized int requests() {
+        return bodies.size();
+    }
+
+    /**
+     * @return the {@code content} of every request, unescaped
+     */
+    synchronized List<String> contents() {
+        List<String> contents = new ArrayList<>();
+        for (String body : bodies) contents.add(content(body));
+        return contents;
+    }
+
+    synchronized List<String> bodies() {
+        return new ArrayList<>(bodies);
+    }
+
+    synchronized long millisBetween(int first, int second) {
+        return (arrivals.get(second) - arrivals.get(first)) / 1_000_000;
+    }
+
+    void awaitRequests(int count) throws InterruptedException {
+        await(() -> requests() >= count);
+    }
+
+    static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) throw new AssertionError("Timed out waiting for the webhook stub");
+            Thread.sleep(10);
+        }
+    }
+
+    private static String content(String body) {
+        String prefix = "{\"content\":\"";
+        String escaped = body.substring(prefix.length(), body.length() - 2);
+        return escaped.replace("\\n", "\n").replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
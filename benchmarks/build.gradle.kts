@@ -0,0 +1,36 @@
+plugins {
+    java
+    // JMH benchmarks for the plugin hot paths, run with ./gradlew :benchmarks:jmh
+    alias(libs.plugins.jmh)
+}
+
+repositories {
+    mavenCentral()
+    maven("https://repo.papermc.io/repository/maven-public/")
+}
+
+dependencies {
+    jmhImplementation(project(":app"))
+
+    // The plugin only compiles against the API, the benchmarks need it at runtime.
+    // No server is started, HeadlessServer stubs the few calls that reach Bukkit.
+    jmhImplementation("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
+}
+
+java {
+    toolchain {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh.get()
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    // Machine readable, so results of two releases can be compared
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    // e.g. ./gradlew :benchmarks:jmh -Pjmh.includes=Leaderboard
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
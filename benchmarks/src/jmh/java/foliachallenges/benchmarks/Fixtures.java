@@ -0,0 +1,46 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.ItemBlacklist;
+import org.bukkit.Material;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Deterministic test data, the same seed gives the same players and blacklist in every run.
+ */
+final class Fixtures {
+
+    static final long SEED = 0x5EEDL;
+
+    private Fixtures() {
+    }
+
+    static List<Material> obtainableItems() {
+        List<Material> items = new ArrayList<>();
+        for (Material m : Material.values()) {
+            if (m.isItem() && ItemBlacklist.isObtainable(m)) items.add(m);
+        }
+        return items;
+    }
+
+    static Set<Material> blacklist(int size) {
+        List<Material> items = obtainableItems();
+        Collections.shuffle(items, new Random(SEED));
+        Set<Material> blacklist = EnumSet.noneOf(Material.class);
+        blacklist.addAll(items.subList(0, Math.min(size, items.size())));
+        return blacklist;
+    }
+
+    static UUID[] players(int count) {
+        Random random = new Random(SEED);
+        UUID[] players = new UUID[count];
+        for (int i = 0; i < count; i++) players[i] = new UUID(random.nextLong(), random.nextLong());
+        return players;
+    }
+}
@@ -0,0 +1,67 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.MessageTemplate;
+import foliachallenges.TextFormat;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text formatting done for every boss bar update, action bar frame and chat message.
+ * {@code replaceChain} is how messages were filled in before the templates and serves as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatBenchmark {
+
+    // Below a minute, below an hour and above an hour take different format strings
+    private static final long[] TIMES = { 42, 1_799, 5_432 };
+    private static final String MESSAGE = "§e%player% §r- §a%points% Points";
+
+    private final MessageTemplate template = MessageTemplate.compile(MESSAGE);
+
+    private String[] names;
+    private int nextName;
+    private int nextTime;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        List<Material> items = Fixtures.obtainableItems();
+        names = new String[items.size()];
+        for (int i = 0; i < names.length; i++) names[i] = items.get(i).name();
+    }
+
+    @Benchmark
+    public String formatItemName() {
+        String name = names[nextName];
+        nextName = nextName + 1 == names.length ? 0 : nextName + 1;
+        return TextFormat.formatItemName(name);
+    }
+
+    @Benchmark
+    public String formatTime() {
+        long seconds = TIMES[nextTime];
+        nextTime = nextTime + 1 == TIMES.length ? 0 : nextTime + 1;
+        return TextFormat.formatTime(seconds);
+    }
+
+    @Benchmark
+    public String replaceChain() {
+        return MESSAGE.replace("%player%", "Steve").replace("%points%", String.valueOf(nextTime));
+    }
+
+    @Benchmark
+    public String template() {
+        return template.text("player", "Steve", "points", nextTime);
+    }
+}
@@ -0,0 +1,61 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.FreezeCheck;
+import foliachallenges.PlayerChallengeState;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-event cost of onMove, for a running session (the common case) and a frozen player who keeps walking.
+ * {@code legacy} is the check before the settings snapshot, a YAML lookup per move and a title built from two message
+ * lookups on every cancelled move; it serves as the baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FreezeCheckBenchmark {
+
+    @Param({"running", "frozen"})
+    public String phase;
+
+    private final YamlConfiguration config = new YamlConfiguration();
+    private final PlayerChallengeState state = new PlayerChallengeState(new UUID(Fixtures.SEED, 1));
+    private final Location from = new Location(null, 0.5, 64, 0.5);
+    private final Location to = new Location(null, 0.6, 64, 0.5);
+    private boolean timerRunning;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        timerRunning = phase.equals("running");
+        config.set("allow-movement-without-timer", false);
+        config.set("timer-paused-title", "STOP!");
+        config.set("timer-paused-subtitle", "Der Timer ist pausiert!");
+    }
+
+    // The title rate limit is part of the frozen path, most cancelled moves end at it
+    @Benchmark
+    public boolean fastPath() {
+        boolean cancel = FreezeCheck.cancelsMove(timerRunning, false, GameMode.SURVIVAL, from, to);
+        return cancel && state.tryFreezeTitle(System.nanoTime());
+    }
+
+    @Benchmark
+    public String legacy() {
+        if (timerRunning || config.getBoolean("allow-movement-without-timer")) return null;
+        if (from.getX() == to.getX() && from.getZ() == to.getZ()) return null;
+        return "§c§l" + config.getString("timer-paused-title") + config.getString("timer-paused-subtitle");
+    }
+}
@@ -0,0 +1,55 @@
+package foliachallenges.benchmarks;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.logging.Logger;
+
+/**
+ * Stub {@link Server} so plugin code that reaches {@link Bukkit} can run without a Minecraft server.
+ * Every call returns a neutral default (null, 0, false, an empty string or the benchmark logger).
+ */
+public final class HeadlessServer {
+
+    private static final Logger LOGGER = Logger.getLogger("FoliaChallenges-Benchmarks");
+
+    private HeadlessServer() {
+    }
+
+    public static synchronized void install() {
+        if (Bukkit.getServer() != null) return;
+        Server server = (Server) Proxy.newProxyInstance(Server.class.getClassLoader(), new Class<?>[] { Server.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "equals": return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    case "toString": return "HeadlessServer";
+                    default: return defaultValue(method.getReturnType());
+                }
+            });
+        try {
+            // Bukkit.setServer logs build information that only exists in a real server jar
+            Field field = Bukkit.class.getDeclaredField("server");
+            field.setAccessible(true);
+            field.set(null, server);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not install the headless server", e);
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == double.class) return 0D;
+        if (type == float.class) return 0F;
+        if (type == short.class) return (short) 0;
+        if (type == byte.class) return (byte) 0;
+        if (type == char.class) return (char) 0;
+        if (type == String.class) return "";
+        if (type == Logger.class) return LOGGER;
+        return null;
+    }
+}
@@ -0,0 +1,85 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Result ordering in endChallenge and the per-score-change leaderboard upkeep.
+ * {@code legacySort} is the stream sort endChallenge did before the live leaderboard and serves as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LeaderboardBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int playerCount;
+
+    private UUID[] players;
+    private int[] scores;
+    private final Map<UUID, Integer> scoreMap = new HashMap<>();
+    private final Leaderboard leaderboard = new Leaderboard();
+    private int next;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        players = Fixtures.players(playerCount);
+        scores = new int[playerCount];
+        Random random = new Random(Fixtures.SEED);
+        for (int i = 0; i < playerCount; i++) {
+            scores[i] = 1 + random.nextInt(60);
+            scoreMap.put(players[i], scores[i]);
+            leaderboard.update(players[i], scores[i]);
+        }
+    }
+
+    @Benchmark
+    public List<Map.Entry<UUID, Integer>> legacySort() {
+        return scoreMap.entrySet().stream()
+            .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
+            .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Leaderboard.Entry> entries() {
+        return leaderboard.entries();
+    }
+
+    @Benchmark
+    public List<Leaderboard.Entry> top10() {
+        return leaderboard.top(10);
+    }
+
+    // One found item; scores wrap around so the tree does not keep growing during the run
+    @Benchmark
+    public int update() {
+        int i = next;
+        next = next + 1 == playerCount ? 0 : next + 1;
+        scores[i] = scores[i] == 200 ? 1 : scores[i] + 1;
+        leaderboard.update(players[i], scores[i]);
+        return scores[i];
+    }
+
+    @Benchmark
+    public int rank() {
+        int i = next;
+        next = next + 1 == playerCount ? 0 : next + 1;
+        return leaderboard.rank(players[i]);
+    }
+}
@@ -0,0 +1,49 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.ItemBlacklist;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ItemBlacklist#isObtainable} for a single material and for a full scan over all materials,
+ * the latter is what building the item pool costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObtainabilityBenchmark {
+
+    private Material[] materials;
+    private int next;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        materials = Material.values();
+    }
+
+    @Benchmark
+    public boolean single() {
+        Material material = materials[next];
+        next = next + 1 == materials.length ? 0 : next + 1;
+        return ItemBlacklist.isObtainable(material);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int allMaterials() {
+        int count = 0;
+        for (Material m : materials) {
+            if (m.isItem() && ItemBlacklist.isObtainable(m)) count++;
+        }
+        return count;
+    }
+}
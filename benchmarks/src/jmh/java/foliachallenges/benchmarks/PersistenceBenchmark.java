@@ -0,0 +1,76 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.ChallengeJournal;
+import foliachallenges.ChallengeSnapshot;
+import foliachallenges.PlayerChallengeState;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of saving: {@code capture} runs on the tick thread, {@code encode} on the DataStore thread,
+ * {@code journalRecord} once per found item. Nothing touches the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersistenceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int playerCount;
+
+    private final List<PlayerChallengeState> players = new ArrayList<>();
+    private final Map<UUID, String> names = new HashMap<>();
+    private ChallengeSnapshot snapshot;
+    // Never opened, encoding a record does not need the file
+    private final ChallengeJournal journal = new ChallengeJournal(Paths.get("benchmark.journal"));
+    private Material[] items;
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        items = Fixtures.obtainableItems().toArray(new Material[0]);
+        Random random = new Random(Fixtures.SEED);
+        for (UUID uuid : Fixtures.players(playerCount)) {
+            PlayerChallengeState state = new PlayerChallengeState(uuid);
+            state.setScore(random.nextInt(60));
+            state.setAssignedItem(items[random.nextInt(items.length)]);
+            state.setJokers(random.nextInt(6));
+            players.add(state);
+            names.put(uuid, "Player" + players.size());
+        }
+        snapshot = capture();
+    }
+
+    @Benchmark
+    public ChallengeSnapshot capture() {
+        return new ChallengeSnapshot(3_600_000, 3_600, "00000000-0000-0000-0000-000000000000", 42L, players, names, 5);
+    }
+
+    @Benchmark
+    public String encode() {
+        return snapshot.toYaml(42);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public byte[] journalRecord() {
+        PlayerChallengeState state = players.get(0);
+        return journal.itemFound(state.getUuid(), state.getAssignedItem(), state.getScore());
+    }
+}
@@ -0,0 +1,79 @@
+package foliachallenges.benchmarks;
+
+import foliachallenges.ItemBlacklist;
+import foliachallenges.ItemPool;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picking the next target item in assignRandomItem.
+ * {@code scan} is the selection before the item pool existed and serves as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TargetSelectionBenchmark {
+
+    @Param({"0", "100", "500"})
+    public int blacklistSize;
+
+    private Set<Material> blacklist;
+    private Material blocked;
+    private final ItemPool pool = new ItemPool();
+    private final ItemPool weightedPool = new ItemPool();
+
+    @Setup
+    public void setup() {
+        HeadlessServer.install();
+        blacklist = Fixtures.blacklist(blacklistSize);
+        pool.rebuild(blacklist);
+        blocked = pool.sample();
+        weightedPool.rebuild(blacklist);
+        // Four tiers with the default weights, like the difficulty tiers of a session that draws from all of them
+        double[] weights = new double[Material.values().length];
+        double[] tierWeights = {3, 3, 2, 1};
+        for (int i = 0; i < weights.length; i++) weights[i] = tierWeights[i % tierWeights.length];
+        weightedPool.setWeights(weights);
+    }
+
+    @Benchmark
+    public Material pool() {
+        return pool.sample();
+    }
+
+    // Alias table draw: one extra random double compared to the uniform pick
+    @Benchmark
+    public Material weighted() {
+        return weightedPool.sample();
+    }
+
+    @Benchmark
+    public Material scan() {
+        List<Material> available = new ArrayList<>();
+        for (Material m : Material.values()) {
+            if (m.isItem() && ItemBlacklist.isObtainable(m) && !blacklist.contains(m)) {
+                available.add(m);
+            }
+        }
+        return available.isEmpty() ? null : available.get(ThreadLocalRandom.current().nextInt(available.size()));
+    }
+
+    // What /challenges randomitembattle blockitem costs, the item is put back so the pool size stays stable
+    @Benchmark
+    public boolean blockAndRestore() {
+        return pool.remove(blocked) & pool.add(blocked);
+    }
+}
@@ -5,3 +5,4 @@ plugins {
 
 rootProject.name = "FoliaChallenges"
 include("app")
+include("benchmarks")